@@ -0,0 +1,58 @@
+package com.recipe.manager.benchmark;
+
+import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientInput;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.service.seed.RecipeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code RecipeService.addRecipe} with many ingredients. Every call creates a recipe with a new name,
+ * so the catalog grows by the number of measured operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AddRecipeBenchmark {
+
+    @Param({"10", "100"})
+    public int ingredients;
+
+    private CreateRecipeRequest template;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        RecipeGenerator generator = new RecipeGenerator(7);
+        template = generator.next(0);
+        List<IngredientInput> inputs = new ArrayList<>();
+        for (int i = 0; i < ingredients; i++) {
+            IngredientInput ingredient = new IngredientInput();
+            ingredient.setName(generator.ingredientName());
+            ingredient.setQuantity(1 + i);
+            ingredient.setUnit(IngredientInput.UnitEnum.GR);
+            inputs.add(ingredient);
+        }
+        template.setIngredients(inputs);
+    }
+
+    @Benchmark
+    public Recipe addRecipe(SeededApplication application) {
+        template.setName("Added recipe " + sequence++);
+        return application.recipeService.addRecipe(template);
+    }
+}
@@ -0,0 +1,95 @@
+package com.recipe.manager.benchmark;
+
+import com.recipe.manager.data.UnitType;
+import com.recipe.manager.dto.Ingredient;
+import com.recipe.manager.dto.RecipeListResponse;
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.IngredientDictionary;
+import com.recipe.manager.service.mapper.IngredientMapper;
+import com.recipe.manager.service.mapper.RecipeMapper;
+import com.recipe.manager.service.seed.RecipeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@code RecipeMapper.map} and {@code IngredientMapper.map} on detached entities. The application context only
+ * provides the mappers and the ingredient dictionary, the mapping itself does not touch the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    @Param("8")
+    public int ingredientsPerRecipe;
+
+    private IngredientMapper ingredientMapper;
+    private RecipeMapper recipeMapper;
+    private List<RecipeEntity> page;
+
+    @Setup
+    public void setUp(SeededApplication application) {
+        ingredientMapper = application.context.getBean(IngredientMapper.class);
+        recipeMapper = application.context.getBean(RecipeMapper.class);
+        IngredientDictionary dictionary = application.context.getBean(IngredientDictionary.class);
+        Random random = new Random(42);
+        RecipeGenerator generator = new RecipeGenerator(42);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId((long) i);
+            recipe.setName("Recipe " + i);
+            recipe.setDescription("Benchmark recipe " + i);
+            recipe.setInstructions("Chop, mix and simmer for twenty minutes.");
+            recipe.setVegeterian(random.nextBoolean());
+            recipe.setServing(1 + random.nextInt(8));
+            recipe.setCreatedAt(Instant.ofEpochSecond(1_700_000_000L + i));
+            List<IngredientEntity> ingredients = new ArrayList<>();
+            for (int j = 0; j < ingredientsPerRecipe; j++) {
+                IngredientEntity ingredient = new IngredientEntity();
+                ingredient.setIngredientName(dictionary.resolve(generator.ingredientName()));
+                ingredient.setQuantity(1 + random.nextInt(500));
+                ingredient.setUnit(UnitType.gr);
+                ingredient.setRecipe(recipe);
+                ingredients.add(ingredient);
+            }
+            recipe.setIngredients(ingredients);
+            page.add(recipe);
+        }
+    }
+
+    @Benchmark
+    public RecipeListResponse mapPage() {
+        return recipeMapper.map(page.stream().map(recipeMapper::toDto).toList(), 1, pageSize, 1_000_000L, true);
+    }
+
+    @Benchmark
+    public void mapIngredients(Blackhole blackhole) {
+        for (RecipeEntity recipe : page) {
+            for (IngredientEntity ingredient : recipe.getIngredients()) {
+                Ingredient dto = ingredientMapper.map(ingredient);
+                blackhole.consume(dto);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.recipe.manager.benchmark;
+
+import com.recipe.manager.dto.RecipeListResponse;
+import com.recipe.manager.dto.RecipeSearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * {@code RecipeService.getRecipes} for every filter shape, first page of 20 ordered by creation time.
+ * {@code searchAndWrite} adds the JSON encoding the message converter does, minus the socket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    @Param({"none", "vegetarian", "servings", "include", "exclude", "instruction", "all"})
+    public String filter;
+
+    private RecipeSearchRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new RecipeSearchRequest();
+        switch (filter) {
+            case "none" -> {
+            }
+            case "vegetarian" -> request.setIsVegetarian(true);
+            case "servings" -> request.setServings(4);
+            case "include" -> request.setIncludeIngredients(List.of("garlic", "tomato"));
+            case "exclude" -> request.setExcludeIngredients(List.of("garlic", "tomato"));
+            case "instruction" -> request.setInstruction("simmer");
+            case "all" -> {
+                request.setIsVegetarian(true);
+                request.setServings(4);
+                request.setIncludeIngredients(List.of("garlic", "tomato", "basil"));
+                request.setExcludeIngredients(List.of("bacon"));
+                request.setInstruction("simmer");
+            }
+            default -> throw new IllegalArgumentException("Unknown filter " + filter);
+        }
+    }
+
+    @Benchmark
+    public RecipeListResponse search(SeededApplication application) {
+        return application.recipeService.getRecipes(request);
+    }
+
+    @Benchmark
+    public void searchAndWrite(SeededApplication application) throws IOException {
+        application.objectMapper.writeValue(OutputStream.nullOutputStream(), application.recipeService.getRecipes(request));
+    }
+}
@@ -0,0 +1,145 @@
+package com.recipe.manager.benchmark;
+
+import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.service.seed.RecipeGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of {@code POST /recipes/search} against the application in platform-thread or
+ * virtual-thread mode. Starts the application on a random port with a seeded in-memory catalog and the search
+ * cache off, then lets {@code clients} concurrent clients send a mix of cheap searches and expensive
+ * deep-page name-sorted searches. Prints throughput and latency percentiles of the measurement window.
+ * <p>
+ * Client and server share the JVM and the CPUs, compare the two modes on the same machine only.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.recipe.manager.benchmark.SearchLoadTest \
+ *     -Dexec.classpathScope=test -Dexec.args="virtual 100000 400 30"
+ * </pre>
+ */
+public class SearchLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final int EXPENSIVE_PERCENT = 10;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int recipes = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        List<String> profiles = new ArrayList<>(List.of("seed"));
+        if (mode.equals("virtual")) {
+            profiles.add("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RecipeManagerLauncher.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run("--server.port=0",
+                        "--recipe.seed.count=" + recipes,
+                        "--spring.cache.type=none",
+                        "--logging.level.root=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(mode, URI.create("http://localhost:" + port + "/recipes/search"), clients, duration);
+        }
+    }
+
+    private static void run(String mode, URI uri, int clients, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long seed = i;
+                results.add(executor.submit(() -> clientLoop(client, uri, new Random(seed), measureFrom, measureTo, errors)));
+            }
+        }
+
+        long[] latencies = results.stream().map(SearchLoadTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("mode=%s clients=%d requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                mode, clients, latencies.length, errors.get(), latencies.length / (double) duration.toSeconds(),
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+    }
+
+    private static long[] clientLoop(HttpClient client, URI uri, Random random, long measureFrom, long measureTo,
+                                     AtomicLong errors) throws Exception {
+        RecipeGenerator generator = new RecipeGenerator(random.nextLong());
+        long[] latencies = new long[1024];
+        int count = 0;
+        long now;
+        while ((now = System.nanoTime()) < measureTo) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body(random, generator)))
+                    .build();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                // a reset or timed out connection is a failed request, the client goes on with the next one
+                status = -1;
+            }
+            long latency = System.nanoTime() - now;
+            if (now < measureFrom) {
+                continue;
+            }
+            if (status != 200) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String body(Random random, RecipeGenerator generator) {
+        if (random.nextInt(100) < EXPENSIVE_PERCENT) {
+            // name order past the first pages has to walk the sorted name index
+            return "{\"orderBy\": \"name\", \"page\": " + (200 + random.nextInt(300)) + ", \"pageSize\": 100}";
+        }
+        return switch (random.nextInt(4)) {
+            case 0 -> "{\"isVegetarian\": true, \"servings\": " + (1 + random.nextInt(6)) + "}";
+            case 1 -> "{\"includeIngredients\": [\"" + generator.ingredientName() + "\"]}";
+            case 2 -> "{\"excludeIngredients\": [\"" + generator.ingredientName() + "\"], \"orderBy\": \"servings\"}";
+            default -> "{\"instruction\": \"simmer " + generator.ingredientName().split(" ")[0] + "\"}";
+        };
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
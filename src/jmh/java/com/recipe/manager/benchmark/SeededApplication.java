@@ -0,0 +1,50 @@
+package com.recipe.manager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.service.RecipeService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application without the web layer, on a private in-memory H2 database seeded with {@code recipes}
+ * generated recipes by the {@code seed} profile. The search cache is switched off, so the benchmarks measure
+ * the search itself.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param("10000")
+    public int recipes;
+
+    ConfigurableApplicationContext context;
+    RecipeService recipeService;
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(RecipeManagerLauncher.class)
+                .web(WebApplicationType.NONE)
+                .profiles("seed")
+                // arguments, not default properties, so they win over application-seed.yml
+                .run("--recipe.seed.count=" + recipes,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.cache.type=none",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN");
+        recipeService = context.getBean(RecipeService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,169 @@
+package com.recipe.manager.benchmark;
+
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.index.MinHashIndex;
+import com.recipe.manager.service.seed.RecipeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the 10 most similar recipes by ingredients: {@code lsh} asks the {@link MinHashIndex}, {@code scan}
+ * compares against every recipe, which is what the index avoids. Ingredient sets are drawn like the seed
+ * generator draws them. The setup prints the recall of the index, the share of the true 10 nearest recipes it
+ * finds, for the given bands and rows.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="SimilarRecipeBenchmark -p recipes=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SimilarRecipeBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final int PROBES = 1024;
+    private static final int RECALL_PROBES = 200;
+
+    @Param({"100000", "1000000"})
+    public int recipes;
+
+    @Param("16")
+    public int bands;
+
+    @Param("3")
+    public int rows;
+
+    private MinHashIndex index;
+    private int[][] ingredients;
+    private long[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new MinHashIndex(bands, rows);
+        ingredients = new int[recipes][];
+        RecipeGenerator generator = new RecipeGenerator(42);
+        Random random = new Random(42);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id = 0; id < recipes; id++) {
+            Set<Integer> set = new LinkedHashSet<>();
+            int count = 3 + random.nextInt(10);
+            for (int attempt = 0; set.size() < count && attempt < count * 4; attempt++) {
+                set.add(ids.computeIfAbsent(generator.ingredientName(), name -> ids.size() + 1));
+            }
+            ingredients[id] = set.stream().mapToInt(Integer::intValue).sorted().toArray();
+            index.add(recipe(id, ingredients[id]));
+        }
+        probes = random.longs(PROBES, 0, recipes).toArray();
+
+        double found = 0;
+        double expected = 0;
+        for (int i = 0; i < RECALL_PROBES; i++) {
+            List<Long> exact = scan(probes[i]);
+            Set<Long> approximate = new LinkedHashSet<>(index.similar(probes[i], LIMIT).stream().map(MinHashIndex.Match::recipeId).toList());
+            expected += exact.size();
+            found += exact.stream().filter(approximate::contains).count();
+        }
+        System.out.printf("%nrecipes=%d bands=%d rows=%d recall@%d=%.3f%n", recipes, bands, rows, LIMIT, found / expected);
+    }
+
+    @Benchmark
+    public List<MinHashIndex.Match> lsh() {
+        return index.similar(nextProbe(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> scan() {
+        return scan(nextProbe());
+    }
+
+    private long nextProbe() {
+        return probes[next++ & (PROBES - 1)];
+    }
+
+    // the exact answer, ties by id like the index
+    private List<Long> scan(long probe) {
+        record Scored(long id, double similarity) {
+        }
+        Comparator<Scored> weakestFirst = Comparator.comparingDouble(Scored::similarity).thenComparingLong(Scored::id);
+        PriorityQueue<Scored> best = new PriorityQueue<>(weakestFirst);
+        int[] own = ingredients[(int) probe];
+        for (int id = 0; id < ingredients.length; id++) {
+            if (id == probe) {
+                continue;
+            }
+            double similarity = jaccard(own, ingredients[id]);
+            if (similarity == 0) {
+                continue;
+            }
+            Scored candidate = new Scored(id, similarity);
+            if (best.size() < LIMIT) {
+                best.add(candidate);
+            } else if (weakestFirst.compare(candidate, best.peek()) > 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().id());
+        }
+        return ranked.reversed();
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static RecipeEntity recipe(long id, int[] ingredientIds) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        List<IngredientEntity> ingredients = new ArrayList<>(ingredientIds.length);
+        for (int ingredientId : ingredientIds) {
+            IngredientNameEntity name = new IngredientNameEntity();
+            name.setId(ingredientId);
+            IngredientEntity ingredient = new IngredientEntity();
+            ingredient.setIngredientName(name);
+            ingredients.add(ingredient);
+        }
+        recipe.setIngredients(ingredients);
+        return recipe;
+    }
+}
@@ -0,0 +1,113 @@
+package com.recipe.manager.benchmark;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time to first request of the packaged application: from starting the JVM until {@code POST /recipes/search}
+ * first answers 200. Every run is a fresh JVM, so nothing is warmed up between runs. Variants:
+ * <ul>
+ *     <li>{@code jar}: the repackaged jar as built without any profile</li>
+ *     <li>{@code aot}: the extracted application with the Spring AOT initializers</li>
+ *     <li>{@code cds}: the extracted application with the AOT initializers and the CDS archive</li>
+ * </ul>
+ * {@code aot} and {@code cds} need the output of the {@code cds} profile. Prints min, median and max per variant.
+ * <pre>
+ * mvn -Pcds package -DskipTests
+ * mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.recipe.manager.benchmark.StartupBenchmark \
+ *     -Dexec.classpathScope=test -Dexec.args="10 jar aot cds"
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED = TARGET.resolve("application");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> variants = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of("jar", "aot", "cds");
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        for (String variant : variants) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(client, variant);
+            }
+            Arrays.sort(millis);
+            System.out.printf("variant=%s runs=%d min=%d ms median=%d ms max=%d ms%n",
+                    variant, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient client, String variant) throws Exception {
+        int port = freePort();
+        HttpRequest search = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/recipes/search"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(variant, port))
+                .directory(variant.equals("jar") ? TARGET.toFile() : EXTRACTED.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant + " exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(search, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant + " did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> command(String variant, int port) {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (variant) {
+            case "jar" -> command.addAll(List.of("-jar", jar()));
+            case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", "application.jar"));
+            case "cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=error",
+                    "-Dspring.aot.enabled=true", "-jar", "application.jar"));
+            default -> throw new IllegalArgumentException("Unknown variant " + variant + ", expected jar, aot or cds");
+        }
+        command.add("--server.port=" + port);
+        return command;
+    }
+
+    private static String jar() {
+        File[] jars = TARGET.toFile().listFiles((directory, name) -> name.endsWith(".jar") && !name.endsWith("-plain.jar"));
+        if (jars == null || jars.length != 1) {
+            throw new IllegalStateException("Expected exactly one application jar in " + TARGET.toAbsolutePath());
+        }
+        return jars[0].getName();
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
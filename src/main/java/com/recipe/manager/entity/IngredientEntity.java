@@ -12,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -19,16 +20,20 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "ingredients", indexes = {
-        @Index(name = "idx_ingredient_name", columnList = "name")
+        @Index(name = "idx_ingredient_name", columnList = "name_id")
 })
 public class IngredientEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence instead of IDENTITY, so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_seq")
+    @SequenceGenerator(name = "ingredient_seq", sequenceName = "ingredient_seq", allocationSize = 200)
     private Long id;
 
-    @Column(nullable = false)
-    private String name;
+    // dictionary-encoded name, IngredientDictionary resolves it without loading the entity
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "name_id", nullable = false)
+    private IngredientNameEntity ingredientName;
 
     @Column(nullable = false)
     private Integer quantity;
@@ -53,12 +58,12 @@ public class IngredientEntity {
         this.id = id;
     }
 
-    public String getName() {
-        return name;
+    public IngredientNameEntity getIngredientName() {
+        return ingredientName;
     }
 
-    public void setName(String name) {
-        this.name = name;
+    public void setIngredientName(IngredientNameEntity ingredientName) {
+        this.ingredientName = ingredientName;
     }
 
     public Integer getQuantity() {
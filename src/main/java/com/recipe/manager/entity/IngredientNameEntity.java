@@ -0,0 +1,55 @@
+package com.recipe.manager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * One distinct ingredient name. Ingredients reference it by id instead of repeating the string, see
+ * IngredientDictionary.
+ */
+@Entity
+@Table(name = "ingredient_names")
+public class IngredientNameEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_name_seq")
+    @SequenceGenerator(name = "ingredient_name_seq", sequenceName = "ingredient_name_seq", allocationSize = 50)
+    private Integer id;
+
+    // as first written, trimmed
+    @Column(nullable = false)
+    private String name;
+
+    // trimmed and lower-cased, what filters compare against
+    @Column(name = "normalized_name", nullable = false, unique = true)
+    private String normalizedName;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+}
@@ -1,15 +1,19 @@
 package com.recipe.manager.entity;
 
+import com.recipe.manager.service.index.RecipeIndexListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
@@ -21,10 +25,13 @@ import java.util.List;
         @Index(name = "idx_recipe_is_vegetarian", columnList = "isVegetarian"),
         @Index(name = "idx_recipe_serving", columnList = "serving"),
 })
+@EntityListeners(RecipeIndexListener.class)
 public class RecipeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence instead of IDENTITY, so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -47,6 +54,8 @@ public class RecipeEntity {
             orphanRemoval = true,
             fetch = FetchType.LAZY
     )
+    // initialize the ingredients of a whole page of recipes at once instead of one query per recipe
+    @BatchSize(size = 100)
     private List<IngredientEntity> ingredients = new ArrayList<>();
 
     @Column(name = "created_at")
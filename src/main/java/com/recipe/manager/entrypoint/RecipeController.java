@@ -1,25 +1,43 @@
 package com.recipe.manager.entrypoint;
 
 import com.recipe.manager.controller.api.RecipesApi;
+import com.recipe.manager.dto.BulkRecipeDeleteRequest;
+import com.recipe.manager.dto.BulkRecipeDeleteResponse;
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.BulkRecipeImportResponse;
+import com.recipe.manager.dto.CookableRecipesResponse;
 import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.PantryRequest;
 import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeFacetsResponse;
 import com.recipe.manager.dto.RecipeListResponse;
 import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.dto.SimilarRecipesResponse;
+import com.recipe.manager.dto.SuggestionsResponse;
 import com.recipe.manager.entrypoint.exception.ApiErrorCode;
 import com.recipe.manager.entrypoint.exception.ApiException;
+import com.recipe.manager.service.RecipeExporter;
 import com.recipe.manager.service.RecipeService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class RecipeController implements RecipesApi {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final RecipeService recipeService;
+    private final RecipeExporter recipeExporter;
+    private final RecipeMetrics recipeMetrics;
 
-    public RecipeController(RecipeService recipeService) {
+    public RecipeController(RecipeService recipeService, RecipeExporter recipeExporter, RecipeMetrics recipeMetrics) {
         this.recipeService = recipeService;
+        this.recipeExporter = recipeExporter;
+        this.recipeMetrics = recipeMetrics;
     }
 
     @Override
@@ -28,17 +46,54 @@ public class RecipeController implements RecipesApi {
         if (CollectionUtils.isEmpty(createRecipeRequest.getIngredients())) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "Ingredients cannot be empty", ApiErrorCode.RequiredParameter);
         }
-        return ResponseEntity.ok().body(recipeService.addRecipe(createRecipeRequest));
+        return ResponseEntity.ok().body(recipeMetrics.timeCreate(() -> recipeService.addRecipe(createRecipeRequest)));
+    }
+
+    @Override
+    public ResponseEntity<BulkRecipeImportResponse> importRecipes(BulkRecipeImportRequest bulkRecipeImportRequest) {
+        return ResponseEntity.ok().body(recipeMetrics.timeImport(() -> recipeService.importRecipes(bulkRecipeImportRequest)));
+    }
+
+    @Override
+    public ResponseEntity<BulkRecipeDeleteResponse> deleteRecipes(BulkRecipeDeleteRequest bulkRecipeDeleteRequest) {
+        return ResponseEntity.ok().body(recipeMetrics.timeBulkDelete(() -> recipeService.deleteRecipes(bulkRecipeDeleteRequest)));
     }
 
     @Override
     public ResponseEntity<RecipeListResponse> searchRecipes(RecipeSearchRequest recipeSearchRequest) {
-        return ResponseEntity.ok().body(recipeService.getRecipes(recipeSearchRequest));
+        return ResponseEntity.ok().body(recipeMetrics.timeSearch(recipeSearchRequest, () -> recipeService.getRecipes(recipeSearchRequest)));
+    }
+
+    @Override
+    public ResponseEntity<RecipeFacetsResponse> getRecipeFacets(RecipeSearchRequest recipeSearchRequest, Integer top) {
+        return ResponseEntity.ok().body(recipeMetrics.timeFacets(recipeSearchRequest, () -> recipeService.getFacets(recipeSearchRequest, top)));
+    }
+
+    @Override
+    public ResponseEntity<CookableRecipesResponse> findCookableRecipes(PantryRequest pantryRequest) {
+        return ResponseEntity.ok().body(recipeMetrics.timeCookable(() -> recipeService.findCookable(pantryRequest)));
+    }
+
+    @Override
+    public ResponseEntity<SimilarRecipesResponse> getSimilarRecipes(Long id, Integer limit) {
+        return ResponseEntity.ok().body(recipeMetrics.timeSimilar(() -> recipeService.getSimilar(id, limit)));
+    }
+
+    @Override
+    public ResponseEntity<SuggestionsResponse> autocompleteNames(String prefix, String type, Integer limit) {
+        return ResponseEntity.ok().body(recipeMetrics.timeAutocomplete(() -> recipeService.autocomplete(prefix, type, limit)));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportRecipes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(recipeExporter::export);
     }
 
     @Override
     public ResponseEntity<Void> removeRecipe(Long id) {
-        recipeService.removeRecipe(id);
+        recipeMetrics.timeDelete(() -> recipeService.removeRecipe(id));
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,148 @@
+package com.recipe.manager.entrypoint;
+
+import com.recipe.manager.dto.RecipeSearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Request timers and error counters of the recipe API. Search timings are tagged by the shape of the request:
+ * which filters are set, the sort, and how deep the requested page is. Tags only carry a fixed set of values,
+ * never the filter values themselves, to keep the number of time series bounded.
+ */
+@Component
+public class RecipeMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer createTimer;
+    private final Timer importTimer;
+    private final Timer deleteTimer;
+    private final Timer bulkDeleteTimer;
+    private final Timer cookableTimer;
+    private final Timer similarTimer;
+    private final Timer autocompleteTimer;
+    private final Counter duplicateCounter;
+    private final Counter notFoundCounter;
+
+    public RecipeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.createTimer = timer("recipe.create").register(registry);
+        this.importTimer = timer("recipe.import").register(registry);
+        this.deleteTimer = timer("recipe.delete").register(registry);
+        this.bulkDeleteTimer = timer("recipe.delete.bulk").register(registry);
+        this.cookableTimer = timer("recipe.cookable").register(registry);
+        this.similarTimer = timer("recipe.similar").register(registry);
+        this.autocompleteTimer = timer("recipe.autocomplete").register(registry);
+        this.duplicateCounter = errorCounter("duplicate");
+        this.notFoundCounter = errorCounter("not_found");
+    }
+
+    public <T> T timeSearch(RecipeSearchRequest request, Supplier<T> search) {
+        return timer("recipe.search")
+                .tag("filters", filterShape(request))
+                .tag("orderBy", request.getOrderBy() != null ? request.getOrderBy().getValue() : "createdAt")
+                .tag("direction", request.getDirection() != null ? request.getDirection().getValue() : "DESC")
+                .tag("depth", pageDepth(request))
+                .register(registry)
+                .record(search);
+    }
+
+    public <T> T timeFacets(RecipeSearchRequest request, Supplier<T> facets) {
+        return timer("recipe.facets")
+                .tag("filters", filterShape(request))
+                .register(registry)
+                .record(facets);
+    }
+
+    public <T> T timeCookable(Supplier<T> cookable) {
+        return cookableTimer.record(cookable);
+    }
+
+    public <T> T timeSimilar(Supplier<T> similar) {
+        return similarTimer.record(similar);
+    }
+
+    public <T> T timeAutocomplete(Supplier<T> autocomplete) {
+        return autocompleteTimer.record(autocomplete);
+    }
+
+    public <T> T timeCreate(Supplier<T> create) {
+        return createTimer.record(create);
+    }
+
+    public <T> T timeImport(Supplier<T> bulkImport) {
+        return importTimer.record(bulkImport);
+    }
+
+    public void timeDelete(Runnable delete) {
+        deleteTimer.record(delete);
+    }
+
+    public <T> T timeBulkDelete(Supplier<T> bulkDelete) {
+        return bulkDeleteTimer.record(bulkDelete);
+    }
+
+    public void countDuplicate() {
+        duplicateCounter.increment();
+    }
+
+    public void countNotFound() {
+        notFoundCounter.increment();
+    }
+
+    static String filterShape(RecipeSearchRequest request) {
+        StringJoiner shape = new StringJoiner("+");
+        if (request.getIsVegetarian() != null) {
+            shape.add("vegetarian");
+        }
+        if (request.getServings() != null) {
+            shape.add("servings");
+        }
+        if (!CollectionUtils.isEmpty(request.getIncludeIngredients())) {
+            shape.add("include");
+        }
+        if (!CollectionUtils.isEmpty(request.getExcludeIngredients())) {
+            shape.add("exclude");
+        }
+        if (request.getIngredientMatch() == RecipeSearchRequest.IngredientMatchEnum.FUZZY
+                && (!CollectionUtils.isEmpty(request.getIncludeIngredients()) || !CollectionUtils.isEmpty(request.getExcludeIngredients()))) {
+            shape.add("fuzzy");
+        }
+        if (StringUtils.hasText(request.getInstruction())) {
+            shape.add("instruction");
+        }
+        return shape.length() == 0 ? "none" : shape.toString();
+    }
+
+    static String pageDepth(RecipeSearchRequest request) {
+        if (StringUtils.hasText(request.getCursor())) {
+            return "cursor";
+        }
+        int page = request.getPage() != null ? request.getPage() : 1;
+        if (page == 1) {
+            return "1";
+        } else if (page <= 10) {
+            return "2-10";
+        } else if (page <= 100) {
+            return "11-100";
+        }
+        return "101+";
+    }
+
+    private Counter errorCounter(String reason) {
+        return Counter.builder("recipe.errors")
+                .description("Recipe API requests rejected by the exception handler")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name).publishPercentileHistogram();
+    }
+}
@@ -6,6 +6,7 @@ public enum ApiErrorCode {
     NotFound,
     MethodNotAllowed,
     UnsupportedMediaType,
+    ServiceUnavailable,
     UnknownError,
 
     RequiredParameter,
@@ -40,6 +40,7 @@ public class ApiException extends RuntimeException {
             case INTERNAL_SERVER_ERROR -> ApiErrorCode.InternalServerError;
             case METHOD_NOT_ALLOWED -> ApiErrorCode.MethodNotAllowed;
             case UNSUPPORTED_MEDIA_TYPE -> ApiErrorCode.UnsupportedMediaType;
+            case SERVICE_UNAVAILABLE -> ApiErrorCode.ServiceUnavailable;
             default -> ApiErrorCode.UnknownError;
         };
     }
@@ -1,6 +1,7 @@
 package com.recipe.manager.entrypoint.exception;
 
 
+import com.recipe.manager.entrypoint.RecipeMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.ConversionNotSupportedException;
@@ -35,6 +36,12 @@ public class BaseExceptionHandler {
     private static final Map<Class<? extends Exception>, HttpStatus> SPRING_BUILTIN_EXCEPTION_MAPPINGS;
     private static final Map<Class<? extends Exception>, HttpStatus> KNOWN_EXCEPTION_MAPPINGS;
 
+    private final RecipeMetrics recipeMetrics;
+
+    public BaseExceptionHandler(RecipeMetrics recipeMetrics) {
+        this.recipeMetrics = recipeMetrics;
+    }
+
     @ExceptionHandler({ApiException.class})
     public ResponseEntity<ApiErrorResponse> handleApiException(ApiException e) {
         logger.debug("{}: {}", e.getHttpStatus(), e.getMessage());
@@ -44,6 +51,7 @@ public class BaseExceptionHandler {
     @ExceptionHandler({RecipeNotFoundException.class})
     public ResponseEntity<ApiErrorResponse> handleRecipeNotFoundException(RecipeNotFoundException e) {
         logger.debug("{}", e.getMessage());
+        recipeMetrics.countNotFound();
         return new ResponseEntity<>(new ApiErrorResponse(e.getMessage(), "ReceiptNotFound"), HttpStatus.BAD_REQUEST);
     }
 
@@ -51,6 +59,7 @@ public class BaseExceptionHandler {
     @ExceptionHandler({RecipeDuplicateException.class})
     public ResponseEntity<ApiErrorResponse> handleRecipeDuplicateException(RecipeDuplicateException e) {
         logger.debug("{}", e.getMessage());
+        recipeMetrics.countDuplicate();
         return new ResponseEntity<>(new ApiErrorResponse(e.getMessage(), "DuplicateReceipt"), HttpStatus.CONFLICT);
     }
 
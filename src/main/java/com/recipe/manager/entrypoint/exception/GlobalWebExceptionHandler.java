@@ -1,8 +1,12 @@
 package com.recipe.manager.entrypoint.exception;
 
+import com.recipe.manager.entrypoint.RecipeMetrics;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 
 @ControllerAdvice
 public class GlobalWebExceptionHandler extends BaseExceptionHandler {
 
+    public GlobalWebExceptionHandler(RecipeMetrics recipeMetrics) {
+        super(recipeMetrics);
+    }
 }
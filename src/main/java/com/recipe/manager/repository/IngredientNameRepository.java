@@ -0,0 +1,13 @@
+package com.recipe.manager.repository;
+
+import com.recipe.manager.entity.IngredientNameEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IngredientNameRepository extends JpaRepository<IngredientNameEntity, Integer> {
+    List<IngredientNameEntity> findByNormalizedNameIn(Collection<String> normalizedNames);
+}
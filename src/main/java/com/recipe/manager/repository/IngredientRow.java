@@ -0,0 +1,9 @@
+package com.recipe.manager.repository;
+
+import com.recipe.manager.data.UnitType;
+
+/**
+ * An ingredient as plain columns. The name is only referenced by id, see {@code IngredientDictionary}.
+ */
+public record IngredientRow(Long recipeId, Integer nameId, Integer quantity, UnitType unit) {
+}
@@ -1,13 +1,56 @@
 package com.recipe.manager.repository;
 
 import com.recipe.manager.entity.RecipeEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<RecipeEntity, Long>, JpaSpecificationExecutor<RecipeEntity> {
     Optional<RecipeEntity> findByName(String name);
+
+    boolean existsByName(String name);
+
+    List<RecipeEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select r.name from RecipeEntity r where r.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // set-based deletes for the bulk delete: they bypass cascades and entity listeners
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from IngredientEntity i where i.recipe.id in :ids")
+    int deleteIngredientsByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RecipeEntity r where r.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // projections for the search path: plain rows, nothing enters the persistence context
+    @Query("select new com.recipe.manager.repository.RecipeRow(r.id, r.name, r.description, r.instructions, r.isVegetarian, r.serving, r.createdAt)"
+            + " from RecipeEntity r where r.id in :ids")
+    List<RecipeRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // the foreign keys are read from the ingredients table, neither recipes nor ingredient_names is joined
+    @Query("select new com.recipe.manager.repository.IngredientRow(i.recipe.id, i.ingredientName.id, i.quantity, i.unit)"
+            + " from IngredientEntity i where i.recipe.id in :recipeIds order by i.id")
+    List<IngredientRow> findIngredientRowsByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
+
+    // forward-only cursor for the export, the caller has to close the stream and clear the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<RecipeEntity> streamAllByOrderByIdAsc();
 }
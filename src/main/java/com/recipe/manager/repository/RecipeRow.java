@@ -0,0 +1,10 @@
+package com.recipe.manager.repository;
+
+import java.time.Instant;
+
+/**
+ * The recipe columns the API returns, selected without loading the entity.
+ */
+public record RecipeRow(Long id, String name, String description, String instructions, boolean isVegetarian,
+                        Integer serving, Instant createdAt) {
+}
@@ -0,0 +1,173 @@
+package com.recipe.manager.service;
+
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.repository.IngredientNameRepository;
+import com.recipe.manager.service.index.TrigramIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned ingredient names. Every distinct name, compared trimmed and lower-cased, is stored once in
+ * {@code ingredient_names} and ingredients reference it by id. The dictionary is small and fully cached, so
+ * turning ids into names and filter names into ids never goes to the database.
+ * <p>
+ * New names are inserted in a transaction of their own: an id handed out stays valid when the caller rolls
+ * back, at the price of an occasional unused name. Writers resolve their names before opening their own
+ * transaction, so a request never holds one connection while waiting for a second. Like the search indexes,
+ * the cache assumes this instance is the only writer.
+ * <p>
+ * Names are also indexed by character trigrams, so filters can match them despite typos, see {@link #similarIds}.
+ */
+@Component
+public class IngredientDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientDictionary.class);
+    // "tomatos" finds "tomato" (0.67) and "tomatoes" (0.55), but not "tomato paste" (0.4)
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int MAX_SIMILAR_NAMES = 5;
+
+    private final IngredientNameRepository ingredientNameRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, IngredientNameEntity> byKey = new ConcurrentHashMap<>();
+    private final Map<Integer, IngredientNameEntity> byId = new ConcurrentHashMap<>();
+    private final TrigramIndex trigrams = new TrigramIndex();
+
+    public IngredientDictionary(IngredientNameRepository ingredientNameRepository, PlatformTransactionManager transactionManager) {
+        this.ingredientNameRepository = ingredientNameRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void load() {
+        ingredientNameRepository.findAll().forEach(this::cache);
+        log.info("Loaded {} ingredient names", byId.size());
+    }
+
+    /**
+     * Drops the cache and reads the table again, after names were written without the dictionary.
+     */
+    public void reload() {
+        byKey.clear();
+        byId.clear();
+        trigrams.clear();
+        load();
+    }
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Dictionary entry of the name, inserted if it is new.
+     */
+    public IngredientNameEntity resolve(String name) {
+        IngredientNameEntity entry = byKey.get(normalize(name));
+        return entry != null ? entry : resolveAll(List.of(name)).get(normalize(name));
+    }
+
+    /**
+     * Dictionary entries of all names by normalized name, the new ones inserted with one batch.
+     */
+    public Map<String, IngredientNameEntity> resolveAll(Collection<String> names) {
+        Map<String, IngredientNameEntity> resolved = new HashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (String name : names) {
+            String key = normalize(name);
+            IngredientNameEntity entry = byKey.get(key);
+            if (entry != null) {
+                resolved.put(key, entry);
+            } else {
+                missing.putIfAbsent(key, name.trim());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (IngredientNameEntity entry : insert(missing)) {
+                cache(entry);
+                resolved.put(entry.getNormalizedName(), entry);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Id of the name, or null when no ingredient was ever stored under it.
+     */
+    public Integer idOf(String name) {
+        IngredientNameEntity entry = byKey.get(normalize(name));
+        return entry != null ? entry.getId() : null;
+    }
+
+    /**
+     * Ids of the stored names most similar to the name, for typo-tolerant filters. Ranked by trigram similarity,
+     * so an exact match comes first. Empty when nothing is similar enough.
+     */
+    public List<Integer> similarIds(String name) {
+        return trigrams.search(normalize(name), MIN_SIMILARITY, MAX_SIMILAR_NAMES).stream()
+                .map(TrigramIndex.Match::id)
+                .toList();
+    }
+
+    /**
+     * Name behind an ingredient's reference. Reading the id does not initialize a lazy reference.
+     */
+    public String name(IngredientNameEntity reference) {
+        IngredientNameEntity entry = byId.get(reference.getId());
+        return entry != null ? entry.getName() : reference.getName();
+    }
+
+    /**
+     * Name behind an id, for rows selected without the entity.
+     */
+    public String name(Integer id) {
+        IngredientNameEntity entry = byId.get(id);
+        if (entry == null) {
+            // only possible with another writer, see the class comment
+            entry = ingredientNameRepository.findById(id).orElseThrow();
+            cache(entry);
+        }
+        return entry.getName();
+    }
+
+    private List<IngredientNameEntity> insert(Map<String, String> missing) {
+        try {
+            return newTransaction.execute(status -> {
+                List<IngredientNameEntity> entries = new ArrayList<>(ingredientNameRepository.findByNormalizedNameIn(missing.keySet()));
+                Map<String, String> toInsert = new LinkedHashMap<>(missing);
+                entries.forEach(entry -> toInsert.remove(entry.getNormalizedName()));
+                List<IngredientNameEntity> created = toInsert.entrySet().stream().map(name -> {
+                    IngredientNameEntity entry = new IngredientNameEntity();
+                    entry.setNormalizedName(name.getKey());
+                    entry.setName(name.getValue());
+                    return entry;
+                }).toList();
+                entries.addAll(ingredientNameRepository.saveAllAndFlush(created));
+                return entries;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request inserted one of the names first, it can be read now
+            return newTransaction.execute(status -> ingredientNameRepository.findByNormalizedNameIn(missing.keySet()));
+        }
+    }
+
+    private void cache(IngredientNameEntity entry) {
+        byKey.put(entry.getNormalizedName(), entry);
+        byId.put(entry.getId(), entry);
+        trigrams.add(entry.getId(), entry.getNormalizedName());
+    }
+}
@@ -0,0 +1,50 @@
+package com.recipe.manager.service;
+
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes one chunk of a bulk import or delete in its own transaction. Ids come from pooled sequences, so the flush
+ * sends the recipes and their ingredients as JDBC batches. The persistence context is cleared afterwards, so memory
+ * does not grow with the size of the import.
+ */
+@Component
+public class RecipeBulkWriter {
+
+    private final RecipeRepository recipeRepository;
+    private final EntityManager entityManager;
+    private final RecipeIndexSynchronizer indexSynchronizer;
+
+    public RecipeBulkWriter(RecipeRepository recipeRepository, EntityManager entityManager, RecipeIndexSynchronizer indexSynchronizer) {
+        this.recipeRepository = recipeRepository;
+        this.entityManager = entityManager;
+        this.indexSynchronizer = indexSynchronizer;
+    }
+
+    @Transactional
+    public List<Long> insert(List<RecipeEntity> recipes) {
+        recipeRepository.saveAllAndFlush(recipes);
+        List<Long> ids = recipes.stream().map(RecipeEntity::getId).toList();
+        entityManager.clear();
+        return ids;
+    }
+
+    /**
+     * Two statements per chunk, ingredients first, instead of loading every recipe and removing its ingredients
+     * one row at a time. Returns the number of recipes deleted.
+     */
+    @Transactional
+    public int delete(List<Long> recipeIds) {
+        recipeRepository.deleteIngredientsByRecipeIds(recipeIds);
+        int deleted = recipeRepository.deleteByIds(recipeIds);
+        // the statements bypass RecipeIndexListener
+        indexSynchronizer.onRemoved(recipeIds);
+        return deleted;
+    }
+}
@@ -0,0 +1,69 @@
+package com.recipe.manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.mapper.RecipeMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON, one recipe per line, in id order. Recipes are read through a database
+ * cursor and handled in chunks: the ingredients of a chunk are loaded by one batch fetch, the chunk is written
+ * and flushed, and the persistence context is cleared. Memory use does not depend on the catalog size.
+ */
+@Component
+public class RecipeExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeExporter.class);
+    // matches the @BatchSize of RecipeEntity.ingredients, so a chunk needs one ingredient query
+    private static final int CHUNK_SIZE = 100;
+    private static final byte NEW_LINE = '\n';
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeMapper recipeMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public RecipeExporter(RecipeRepository recipeRepository, RecipeMapper recipeMapper, ObjectMapper objectMapper,
+                          EntityManager entityManager) {
+        this.recipeRepository = recipeRepository;
+        this.recipeMapper = recipeMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) throws IOException {
+        long count = 0;
+        List<RecipeEntity> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<RecipeEntity> recipes = recipeRepository.streamAllByOrderByIdAsc()) {
+            Iterator<RecipeEntity> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (RecipeEntity recipe : chunk) {
+                        out.write(objectMapper.writeValueAsBytes(recipeMapper.toDto(recipe)));
+                        out.write(NEW_LINE);
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    out.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Exported {} recipes", count);
+        return count;
+    }
+}
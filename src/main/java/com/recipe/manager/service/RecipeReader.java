@@ -0,0 +1,80 @@
+package com.recipe.manager.service;
+
+import com.recipe.manager.dto.Ingredient;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.repository.IngredientRow;
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.repository.RecipeRow;
+import com.recipe.manager.service.cache.RecipeJsonCache;
+import com.recipe.manager.service.mapper.IngredientMapper;
+import com.recipe.manager.service.mapper.RecipeMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read path of the search: selects exactly the columns of the {@link Recipe} DTO as rows and maps them directly.
+ * No entity is hydrated, so there are no managed instances, snapshots for dirty checking or collection wrappers
+ * to allocate per recipe. Both queries run in one read-only transaction and see the same data.
+ * <p>
+ * Recipes found in the {@link RecipeJsonCache} are not read at all. When every recipe of a page is cached,
+ * no transaction is started and no connection is taken from the pool.
+ */
+@Component
+public class RecipeReader {
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeMapper recipeMapper;
+    private final IngredientMapper ingredientMapper;
+    private final RecipeJsonCache recipeJsonCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public RecipeReader(RecipeRepository recipeRepository, RecipeMapper recipeMapper, IngredientMapper ingredientMapper,
+                        RecipeJsonCache recipeJsonCache, PlatformTransactionManager transactionManager) {
+        this.recipeRepository = recipeRepository;
+        this.recipeMapper = recipeMapper;
+        this.ingredientMapper = ingredientMapper;
+        this.recipeJsonCache = recipeJsonCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Recipes in the order of the ids. Ids without a stored recipe are skipped.
+     */
+    public List<Recipe> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Recipe> recipesById = new HashMap<>(recipeJsonCache.getAll(ids));
+        if (recipesById.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !recipesById.containsKey(id)).toList();
+            // a writing transaction may see its own uncommitted recipes, those must not be cached
+            boolean committedView = !TransactionSynchronizationManager.isActualTransactionActive()
+                    || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            for (Recipe recipe : readOnlyTransaction.execute(status -> read(missing))) {
+                recipesById.put(recipe.getId(), committedView ? recipeJsonCache.put(recipe) : recipe);
+            }
+        }
+        return ids.stream().map(recipesById::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<Recipe> read(List<Long> ids) {
+        Map<Long, List<Ingredient>> ingredients = new HashMap<>();
+        for (IngredientRow row : recipeRepository.findIngredientRowsByRecipeIdIn(ids)) {
+            ingredients.computeIfAbsent(row.recipeId(), id -> new ArrayList<>()).add(ingredientMapper.map(row));
+        }
+        List<Recipe> recipes = new ArrayList<>(ids.size());
+        for (RecipeRow row : recipeRepository.findRowsByIdIn(ids)) {
+            recipes.add(recipeMapper.toDto(row, ingredients.getOrDefault(row.id(), new ArrayList<>())));
+        }
+        return recipes;
+    }
+}
@@ -1,76 +1,543 @@
 package com.recipe.manager.service;
 
+import com.recipe.manager.config.CacheConfiguration;
+import com.recipe.manager.dto.BulkRecipeDeleteRequest;
+import com.recipe.manager.dto.BulkRecipeDeleteResponse;
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.BulkRecipeImportResponse;
+import com.recipe.manager.dto.BulkRecipeImportResult;
+import com.recipe.manager.dto.CookableRecipe;
+import com.recipe.manager.dto.CookableRecipesResponse;
 import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientFacet;
+import com.recipe.manager.dto.IngredientInput;
+import com.recipe.manager.dto.PantryItem;
+import com.recipe.manager.dto.PantryRequest;
 import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeFacetsResponse;
 import com.recipe.manager.dto.RecipeListResponse;
 import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.dto.ServingsFacet;
+import com.recipe.manager.dto.SimilarRecipe;
+import com.recipe.manager.dto.SimilarRecipesResponse;
+import com.recipe.manager.dto.Suggestion;
+import com.recipe.manager.dto.SuggestionsResponse;
+import com.recipe.manager.data.UnitType;
 import com.recipe.manager.entity.IngredientEntity;
 import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.entrypoint.exception.ApiErrorCode;
+import com.recipe.manager.entrypoint.exception.ApiException;
 import com.recipe.manager.entrypoint.exception.RecipeDuplicateException;
 import com.recipe.manager.entrypoint.exception.RecipeNotFoundException;
 import com.recipe.manager.repository.RecipeRepository;
-import com.recipe.manager.service.mapper.IngredientMapper;
+import com.recipe.manager.service.cache.RecipeJsonCache;
+import com.recipe.manager.service.index.AutocompleteIndex;
+import com.recipe.manager.service.index.InstructionIndex;
+import com.recipe.manager.service.index.MinHashIndex;
+import com.recipe.manager.service.index.PantryIndex;
+import com.recipe.manager.service.index.RecipeBitmapIndex;
+import com.recipe.manager.service.index.RecipeFacets;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import com.recipe.manager.service.index.RecipeNameFilter;
+import com.recipe.manager.service.index.RelevanceIndex;
+import com.recipe.manager.service.index.Tokenizer;
 import com.recipe.manager.service.mapper.RecipeMapper;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
+import org.hibernate.exception.ConstraintViolationException;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class RecipeService {
 
     private static final Logger log = LoggerFactory.getLogger(RecipeService.class);
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int MAX_BULK_IMPORT_SIZE = 10_000;
+    private static final int MAX_BULK_DELETE_SIZE = 10_000;
+    private static final int DEFAULT_FACET_INGREDIENTS = 10;
+    private static final int MAX_FACET_INGREDIENTS = 100;
+    private static final int MAX_PANTRY_SIZE = 500;
+    private static final int MAX_MISSING_INGREDIENTS = 5;
+    private static final int DEFAULT_COOKABLE_RECIPES = 20;
+    private static final int MAX_COOKABLE_RECIPES = 100;
+    private static final int DEFAULT_SIMILAR_RECIPES = 10;
+    private static final int MAX_SIMILAR_RECIPES = 50;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_PREFIX_LENGTH = 100;
+    private static final String RELEVANCE = RecipeSearchRequest.OrderByEnum.RELEVANCE.getValue();
     private final RecipeRepository recipeRepository;
     private final RecipeMapper recipeMapper;
-    private final IngredientMapper ingredientMapper;
+    private final IngredientDictionary ingredientDictionary;
+    private final InstructionIndex instructionIndex;
+    private final RelevanceIndex relevanceIndex;
+    private final RecipeBitmapIndex bitmapIndex;
+    private final PantryIndex pantryIndex;
+    private final MinHashIndex minHashIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final RecipeIndexSynchronizer indexSynchronizer;
+    private final RecipeNameFilter nameFilter;
+    private final RecipeBulkWriter recipeBulkWriter;
+    private final RecipeReader recipeReader;
+    private final RecipeJsonCache recipeJsonCache;
+    private final TransactionTemplate writeTransaction;
 
-    public RecipeService(RecipeRepository recipeRepository, RecipeMapper recipeMapper, IngredientMapper ingredientMapper) {
+    public RecipeService(RecipeRepository recipeRepository, RecipeMapper recipeMapper, IngredientDictionary ingredientDictionary,
+                         InstructionIndex instructionIndex, RelevanceIndex relevanceIndex, RecipeBitmapIndex bitmapIndex,
+                         PantryIndex pantryIndex, MinHashIndex minHashIndex, AutocompleteIndex autocompleteIndex,
+                         RecipeIndexSynchronizer indexSynchronizer, RecipeNameFilter nameFilter, RecipeBulkWriter recipeBulkWriter, RecipeReader recipeReader,
+                         RecipeJsonCache recipeJsonCache, PlatformTransactionManager transactionManager) {
         this.recipeRepository = recipeRepository;
         this.recipeMapper = recipeMapper;
-        this.ingredientMapper = ingredientMapper;
+        this.ingredientDictionary = ingredientDictionary;
+        this.instructionIndex = instructionIndex;
+        this.relevanceIndex = relevanceIndex;
+        this.bitmapIndex = bitmapIndex;
+        this.pantryIndex = pantryIndex;
+        this.minHashIndex = minHashIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.indexSynchronizer = indexSynchronizer;
+        this.nameFilter = nameFilter;
+        this.recipeBulkWriter = recipeBulkWriter;
+        this.recipeReader = recipeReader;
+        this.recipeJsonCache = recipeJsonCache;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    // Not @Transactional: new ingredient names are inserted before the transaction opens, so a create never holds
+    // one connection while the dictionary waits for a second
     public Recipe addRecipe(CreateRecipeRequest createRecipeRequest) {
+        ingredientDictionary.resolveAll(createRecipeRequest.getIngredients().stream().map(IngredientInput::getName).toList());
+        return writeTransaction.execute(status -> createRecipe(createRecipeRequest));
+    }
 
-        if (recipeRepository.findByName(createRecipeRequest.getName()).isPresent()) {
-            log.error("Recipe already exists with a name = {}", createRecipeRequest.getName());
+    private Recipe createRecipe(CreateRecipeRequest createRecipeRequest) {
+        String name = createRecipeRequest.getName();
+        // only names the filter may know cost a lookup, the unique constraint catches the rest
+        boolean mayExist = !indexSynchronizer.isReady() || nameFilter.mightContain(name);
+        if (mayExist && recipeRepository.existsByName(name)) {
+            log.error("Recipe already exists with a name = {}", name);
             throw new RecipeDuplicateException("Recipe already exists");
         }
 
+        RecipeEntity savedRecipe;
+        try {
+            // flush so the insert, and with it the creation timestamp, happens before mapping
+            savedRecipe = recipeRepository.saveAndFlush(toEntity(createRecipeRequest));
+        } catch (DataIntegrityViolationException e) {
+            // the name is the only unique key a new recipe can hit
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                log.error("Recipe already exists with a name = {}", name);
+                throw new RecipeDuplicateException("Recipe already exists");
+            }
+            throw e;
+        }
+
+        log.info("Created new recipe with ID={}", savedRecipe.getId());
+        Recipe recipe = recipeMapper.toDto(savedRecipe);
+        recipeJsonCache.putAfterCommit(recipe);
+        return recipe;
+    }
+
+    // Not transactional on purpose: every chunk is committed on its own, so a failing chunk does not undo the others
+    public BulkRecipeImportResponse importRecipes(BulkRecipeImportRequest request) {
+        long start = System.nanoTime();
+        List<CreateRecipeRequest> items = request.getRecipes();
+        // the generated request does not enforce minItems/maxItems
+        if (items.isEmpty() || items.size() > MAX_BULK_IMPORT_SIZE) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Bulk import takes 1 to " + MAX_BULK_IMPORT_SIZE + " recipes", ApiErrorCode.InvalidParameter);
+        }
+        List<BulkRecipeImportResult> results = new ArrayList<>(items.size());
+
+        // one IN query per chunk of names instead of a findByName per recipe
+        Set<String> takenNames = new HashSet<>();
+        List<String> names = items.stream().map(CreateRecipeRequest::getName).distinct().toList();
+        for (int i = 0; i < names.size(); i += BULK_CHUNK_SIZE) {
+            takenNames.addAll(recipeRepository.findExistingNames(names.subList(i, Math.min(i + BULK_CHUNK_SIZE, names.size()))));
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            CreateRecipeRequest item = items.get(i);
+            BulkRecipeImportResult result = new BulkRecipeImportResult();
+            result.setIndex(i);
+            result.setName(item.getName());
+            results.add(result);
+            if (CollectionUtils.isEmpty(item.getIngredients())) {
+                skip(result, BulkRecipeImportResult.StatusEnum.INVALID, "Ingredients cannot be empty");
+            } else if (!takenNames.add(item.getName())) {
+                skip(result, BulkRecipeImportResult.StatusEnum.DUPLICATE, "Recipe already exists");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // new ingredient names go into the dictionary in one batch instead of one by one while mapping
+        ingredientDictionary.resolveAll(pending.stream()
+                .flatMap(index -> items.get(index).getIngredients().stream())
+                .map(IngredientInput::getName)
+                .collect(Collectors.toSet()));
+
+        for (int i = 0; i < pending.size(); i += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(i, Math.min(i + BULK_CHUNK_SIZE, pending.size()));
+            try {
+                created(results, chunk, recipeBulkWriter.insert(chunk.stream().map(index -> toEntity(items.get(index))).toList()));
+            } catch (DataIntegrityViolationException e) {
+                // e.g. a concurrent create took one of the names, retry the chunk one recipe at a time
+                log.warn("Bulk import chunk failed, retrying {} recipes one by one", chunk.size());
+                for (Integer index : chunk) {
+                    try {
+                        created(results, List.of(index), recipeBulkWriter.insert(List.of(toEntity(items.get(index)))));
+                    } catch (DataIntegrityViolationException single) {
+                        if (recipeRepository.findByName(items.get(index).getName()).isPresent()) {
+                            skip(results.get(index), BulkRecipeImportResult.StatusEnum.DUPLICATE, "Recipe already exists");
+                        } else {
+                            skip(results.get(index), BulkRecipeImportResult.StatusEnum.INVALID, "Recipe could not be stored");
+                        }
+                    }
+                }
+            }
+        }
+
+        long durationMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        int createdCount = (int) results.stream().filter(r -> r.getStatus() == BulkRecipeImportResult.StatusEnum.CREATED).count();
+        BulkRecipeImportResponse response = new BulkRecipeImportResponse();
+        response.setCreated(createdCount);
+        response.setSkipped(items.size() - createdCount);
+        response.setDurationMillis(durationMillis);
+        response.setRecipesPerSecond(createdCount * 1000.0 / durationMillis);
+        response.setResults(results);
+        log.info("Imported {} of {} recipes in {} ms", createdCount, items.size(), durationMillis);
+        return response;
+    }
+
+    private void created(List<BulkRecipeImportResult> results, List<Integer> indexes, List<Long> ids) {
+        for (int i = 0; i < indexes.size(); i++) {
+            BulkRecipeImportResult result = results.get(indexes.get(i));
+            result.setStatus(BulkRecipeImportResult.StatusEnum.CREATED);
+            result.setId(ids.get(i));
+        }
+    }
+
+    private void skip(BulkRecipeImportResult result, BulkRecipeImportResult.StatusEnum status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    private RecipeEntity toEntity(CreateRecipeRequest createRecipeRequest) {
         RecipeEntity recipeEntity = recipeMapper.toEntity(createRecipeRequest);
+        recipeEntity.getIngredients().forEach(ingredientEntity -> ingredientEntity.setRecipe(recipeEntity));
+        return recipeEntity;
+    }
+
+    // Results are cached per data version, see SearchCacheKey. The startup fallback is not cached
+    @Cacheable(cacheNames = CacheConfiguration.RECIPE_SEARCH_CACHE, keyGenerator = "searchCacheKeyGenerator",
+            condition = "@recipeIndexSynchronizer.isReady()", sync = true)
+    public RecipeListResponse getRecipes(RecipeSearchRequest filter) {
+        SearchCursor cursor = filter.getCursor() != null ? SearchCursor.decode(filter.getCursor()) : null;
+        String orderBy = cursor != null ? cursor.orderBy() : orderBy(filter);
+        Sort.Direction direction = cursor != null ? cursor.direction() : direction(filter);
+        boolean relevance = RELEVANCE.equals(orderBy);
+        if (relevance) {
+            checkRankable(filter);
+        }
 
-        List<IngredientEntity> ingredientEntities = createRecipeRequest.getIngredients().stream()
-                .map(ingredientMapper::map)
-                .peek(ingredientEntity -> ingredientEntity.setRecipe(recipeEntity))
-                .collect(Collectors.toList());
+        SearchPage searchPage = indexSynchronizer.isReady()
+                ? searchIndexes(filter, orderBy, direction, cursor)
+                : searchDatabase(filter, orderBy, direction, cursor);
 
-        recipeEntity.setIngredients(ingredientEntities);
+        RecipeListResponse response = recipeMapper.map(searchPage.recipes(), cursor == null ? filter.getPage() : null, filter.getPageSize(),
+                searchPage.totalCount(), searchPage.totalCountExact());
+        // scores move with every write, so ranked results are only paged by number
+        if (searchPage.hasNext() && !response.getData().isEmpty() && !relevance) {
+            response.setNextCursor(SearchCursor.after(response.getData().getLast(), orderBy, direction).encode());
+        }
+        return response;
+    }
 
-        RecipeEntity savedRecipe = recipeRepository.save(recipeEntity);
+    /**
+     * One page of a search. totalCount is null when it was not computed.
+     */
+    private record SearchPage(List<Recipe> recipes, boolean hasNext, Long totalCount, boolean totalCountExact) {
+    }
 
-        log.info("Created new recipe with ID={}", savedRecipe.getId());
-        return recipeMapper.toDto(savedRecipe);
+    // there is nothing to rank by without keywords, and the database fallback cannot rank at all
+    private void checkRankable(RecipeSearchRequest filter) {
+        if (Tokenizer.tokenize(filter.getInstruction()).isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "orderBy relevance needs an instruction", ApiErrorCode.InvalidParameter);
+        }
+        if (!indexSynchronizer.isReady()) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable);
+        }
+    }
+
+    private static boolean countRequested(RecipeSearchRequest filter, SearchCursor cursor) {
+        return cursor == null && filter.getCount() != RecipeSearchRequest.CountEnum.NONE;
+    }
+
+    private SearchPage searchIndexes(RecipeSearchRequest filter, String orderBy, Sort.Direction direction, SearchCursor cursor) {
+        Roaring64Bitmap matches = matchIndexes(filter);
+
+        // one extra id tells whether there is a next page
+        int pageSize = filter.getPageSize();
+        List<Long> ids;
+        if (RELEVANCE.equals(orderBy)) {
+            // only the best matches up to the end of the page are kept while scoring
+            long offset = (long) (filter.getPage() - 1) * pageSize;
+            int limit = (int) Math.min(matches.getLongCardinality(), offset + pageSize + 1);
+            List<Long> top = relevanceIndex.top(matches, filter.getInstruction(), limit);
+            ids = top.subList((int) Math.min(offset, top.size()), top.size());
+        } else if (cursor == null) {
+            long offset = (long) (filter.getPage() - 1) * pageSize;
+            ids = bitmapIndex.page(matches, orderBy, direction.isAscending(), offset, pageSize + 1);
+        } else {
+            ids = bitmapIndex.pageAfter(matches, orderBy, direction.isAscending(), cursor.typedValue(), cursor.id(), pageSize + 1);
+        }
+        List<Long> pageIds = ids.subList(0, Math.min(pageSize, ids.size()));
+
+        // the index may briefly hold ids of uncommitted or just deleted recipes, the reader drops those
+        List<Recipe> recipes = recipeReader.findAllById(pageIds);
+
+        // the cardinality is free, but includes recipes of transactions that are still running
+        Long totalCount = countRequested(filter, cursor) ? matches.getLongCardinality() : null;
+        return new SearchPage(recipes, ids.size() > pageSize, totalCount, !indexSynchronizer.hasUncommittedAdditions());
+    }
+
+    // an instruction without tokens filters nothing, in the index and in the database fallback alike
+    private static boolean hasCriterion(RecipeSearchRequest filter) {
+        return filter.getIsVegetarian() != null || filter.getServings() != null || !CollectionUtils.isEmpty(filter.getIncludeIngredients())
+                || !CollectionUtils.isEmpty(filter.getExcludeIngredients()) || !Tokenizer.tokenize(filter.getInstruction()).isEmpty();
+    }
+
+    private Roaring64Bitmap matchIndexes(RecipeSearchRequest filter) {
+        Roaring64Bitmap matches = bitmapIndex.match(filter.getIsVegetarian(), filter.getServings(),
+                ingredientIds(filter.getIncludeIngredients(), filter.getIngredientMatch()),
+                ingredientIds(filter.getExcludeIngredients(), filter.getIngredientMatch()));
+        if (StringUtils.hasText(filter.getInstruction())) {
+            long[] instructionMatches = instructionIndex.search(filter.getInstruction());
+            if (instructionMatches != null) {
+                matches.and(Roaring64Bitmap.bitmapOf(instructionMatches));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Facet counts of the recipes matching the filter, straight from the bitmap index.
+     * There is no database fallback: grouping the whole catalog per ingredient is what the index is there to avoid.
+     */
+    public RecipeFacetsResponse getFacets(RecipeSearchRequest filter, Integer top) {
+        if (!indexSynchronizer.isReady()) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable);
+        }
+        int topIngredients = top != null ? top : DEFAULT_FACET_INGREDIENTS;
+        if (topIngredients < 1 || topIngredients > MAX_FACET_INGREDIENTS) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "top must be between 1 and " + MAX_FACET_INGREDIENTS, ApiErrorCode.InvalidParameter);
+        }
+
+        boolean exact = !indexSynchronizer.hasUncommittedAdditions();
+        RecipeFacets facets = bitmapIndex.facets(hasCriterion(filter) ? matchIndexes(filter) : null, topIngredients);
+
+        RecipeFacetsResponse response = new RecipeFacetsResponse();
+        response.setTotalItems(facets.total());
+        response.setTotalItemsExact(exact);
+        response.setVegetarian(facets.vegetarian());
+        response.setNonVegetarian(facets.total() - facets.vegetarian());
+        response.setServings(facets.servings().entrySet().stream()
+                .map(servings -> new ServingsFacet().servings(servings.getKey()).count(servings.getValue()))
+                .toList());
+        response.setIngredients(facets.ingredients().stream()
+                .map(ingredient -> new IngredientFacet().name(ingredientDictionary.name(ingredient.ingredientId())).count(ingredient.count()))
+                .toList());
+        return response;
+    }
+
+    /**
+     * Recipes the pantry covers up to {@code maxMissing} ingredients, from the in-memory pantry index.
+     * Like the facets there is no database fallback: it would take one exclusion per ingredient the pantry lacks.
+     */
+    public CookableRecipesResponse findCookable(PantryRequest request) {
+        if (!indexSynchronizer.isReady()) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable);
+        }
+        List<PantryItem> items = request.getIngredients();
+        // the generated request does not enforce minItems/maxItems
+        if (CollectionUtils.isEmpty(items) || items.size() > MAX_PANTRY_SIZE) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Pantry takes 1 to " + MAX_PANTRY_SIZE + " ingredients", ApiErrorCode.InvalidParameter);
+        }
+        int maxMissing = request.getMaxMissing() != null ? request.getMaxMissing() : 0;
+        if (maxMissing < 0 || maxMissing > MAX_MISSING_INGREDIENTS) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "maxMissing must be between 0 and " + MAX_MISSING_INGREDIENTS, ApiErrorCode.InvalidParameter);
+        }
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_COOKABLE_RECIPES;
+        if (limit < 1 || limit > MAX_COOKABLE_RECIPES) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_COOKABLE_RECIPES, ApiErrorCode.InvalidParameter);
+        }
+
+        List<PantryIndex.Supply> pantry = new ArrayList<>(items.size());
+        for (PantryItem item : items) {
+            if ((item.getQuantity() == null) != (item.getUnit() == null)) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "Pantry quantity and unit go together", ApiErrorCode.InvalidParameter);
+            }
+            // names never stored are in no recipe
+            Integer ingredientId = ingredientDictionary.idOf(item.getName());
+            if (ingredientId != null) {
+                UnitType unit = item.getUnit() != null ? UnitType.valueOf(item.getUnit().getValue()) : null;
+                pantry.add(new PantryIndex.Supply(ingredientId, item.getQuantity(), unit));
+            }
+        }
+
+        PantryIndex.Result result = pantryIndex.cookable(pantry, maxMissing, limit);
+        // the index may briefly hold ids of uncommitted or just deleted recipes, the reader drops those
+        Map<Long, Recipe> recipes = recipeReader.findAllById(result.matches().stream().map(PantryIndex.Match::recipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+
+        CookableRecipesResponse response = new CookableRecipesResponse();
+        response.setTotalItems(result.total());
+        response.setData(result.matches().stream()
+                .filter(match -> recipes.containsKey(match.recipeId()))
+                .map(match -> new CookableRecipe()
+                        .recipe(recipes.get(match.recipeId()))
+                        .missingIngredients(match.missingIngredients().stream().map(ingredientDictionary::name).toList()))
+                .toList());
+        return response;
+    }
+
+    /**
+     * Recipes with ingredients similar to the ones of the recipe, from the in-memory MinHash index.
+     */
+    public SimilarRecipesResponse getSimilar(Long id, Integer limit) {
+        if (!indexSynchronizer.isReady()) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable);
+        }
+        int maxRecipes = limit != null ? limit : DEFAULT_SIMILAR_RECIPES;
+        if (maxRecipes < 1 || maxRecipes > MAX_SIMILAR_RECIPES) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SIMILAR_RECIPES, ApiErrorCode.InvalidParameter);
+        }
+        List<MinHashIndex.Match> matches = minHashIndex.similar(id, maxRecipes);
+        if (matches == null) {
+            throw new RecipeNotFoundException("Recipe not found");
+        }
+
+        // the index may briefly hold ids of uncommitted or just deleted recipes, the reader drops those
+        Map<Long, Recipe> recipes = recipeReader.findAllById(matches.stream().map(MinHashIndex.Match::recipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
+        SimilarRecipesResponse response = new SimilarRecipesResponse();
+        response.setData(matches.stream()
+                .filter(match -> recipes.containsKey(match.recipeId()))
+                .map(match -> new SimilarRecipe().recipe(recipes.get(match.recipeId())).similarity(match.similarity()))
+                .toList());
+        return response;
+    }
+
+    public SuggestionsResponse autocomplete(String prefix, String type, Integer limit) {
+        if (!indexSynchronizer.isReady()) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable);
+        }
+        if (!StringUtils.hasText(prefix) || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "prefix must have between 1 and " + MAX_PREFIX_LENGTH + " characters", ApiErrorCode.InvalidParameter);
+        }
+        Suggestion.TypeEnum only;
+        try {
+            only = type != null ? Suggestion.TypeEnum.fromValue(type) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "type must be ingredient or recipe", ApiErrorCode.InvalidParameter);
+        }
+        int maxSuggestions = limit != null ? limit : DEFAULT_SUGGESTIONS;
+        if (maxSuggestions < 1 || maxSuggestions > MAX_SUGGESTIONS) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS, ApiErrorCode.InvalidParameter);
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (only != Suggestion.TypeEnum.RECIPE) {
+            autocompleteIndex.ingredients(prefix, maxSuggestions)
+                    .forEach(completion -> suggestions.add(suggestion(completion, Suggestion.TypeEnum.INGREDIENT)));
+        }
+        if (only != Suggestion.TypeEnum.INGREDIENT) {
+            autocompleteIndex.recipes(prefix, maxSuggestions)
+                    .forEach(completion -> suggestions.add(suggestion(completion, Suggestion.TypeEnum.RECIPE)));
+        }
+        // stable sort: ingredients stay ahead of recipe names of equal weight
+        suggestions.sort(Comparator.comparing(Suggestion::getWeight).reversed());
+        SuggestionsResponse response = new SuggestionsResponse();
+        response.setData(suggestions.subList(0, Math.min(maxSuggestions, suggestions.size())));
+        return response;
+    }
+
+    private static Suggestion suggestion(AutocompleteIndex.Completion completion, Suggestion.TypeEnum type) {
+        return new Suggestion().text(completion.text()).type(type).weight(completion.weight());
     }
 
     // Super slow query. Never use it in production!!!
-    // Use full text search engines like ElasticSearch
-    public RecipeListResponse getRecipes(RecipeSearchRequest filter) {
-        Specification<RecipeEntity> spec = (root, query, criteriaBuilder) -> {
+    // Only used while the in-memory indexes are being loaded on startup
+    private SearchPage searchDatabase(RecipeSearchRequest filter, String orderBy, Sort.Direction direction, SearchCursor cursor) {
+        // the entity field behind the "servings" sort option is called "serving"
+        String sortField = "servings".equals(orderBy) ? "serving" : orderBy;
+        Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+        Specification<RecipeEntity> spec = searchSpecification(filter);
+
+        if (cursor == null) {
+            Pageable pageable = PageRequest.of(filter.getPage() - 1, filter.getPageSize(), sort);
+            if (filter.getCount() == RecipeSearchRequest.CountEnum.EXACT) {
+                Page<RecipeEntity> recipePage = recipeRepository.findAll(spec, pageable);
+                return new SearchPage(toDtos(recipePage.getContent()), recipePage.hasNext(), recipePage.getTotalElements(), true);
+            }
+            // there is no cheap estimate without the indexes, so skip the COUNT query and only look one row ahead
+            Slice<RecipeEntity> recipeSlice = recipeRepository.findBy(spec, query -> query.slice(pageable));
+            return new SearchPage(toDtos(recipeSlice.getContent()), recipeSlice.hasNext(), null, false);
+        }
+
+        int pageSize = filter.getPageSize();
+        List<RecipeEntity> recipes = recipeRepository.findBy(spec.and(seekAfter(cursor, sortField)),
+                query -> query.sortBy(sort).limit(pageSize + 1).all());
+        return new SearchPage(toDtos(recipes.subList(0, Math.min(pageSize, recipes.size()))), recipes.size() > pageSize, null, false);
+    }
+
+    private List<Recipe> toDtos(List<RecipeEntity> recipes) {
+        return recipes.stream().map(recipeMapper::toDto).toList();
+    }
+
+    // a token bounded by the text edges or by characters the Tokenizer treats as separators
+    private static String tokenPattern(String token) {
+        return "(^|[^\\p{L}\\p{Nd}])" + token + "($|[^\\p{L}\\p{Nd}])";
+    }
+
+    private Specification<RecipeEntity> searchSpecification(RecipeSearchRequest filter) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (filter.getIsVegetarian() != null) {
@@ -81,47 +548,133 @@ public class RecipeService {
                 predicates.add(criteriaBuilder.equal(root.get("serving"), filter.getServings()));
             }
 
-            if (StringUtils.hasText(filter.getInstruction())) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("instructions")), "%" + filter.getInstruction().toLowerCase() + "%"));
+            // whole tokens, like the instruction index; a query without tokens filters nothing there either
+            for (String token : new LinkedHashSet<>(Tokenizer.tokenize(filter.getInstruction()))) {
+                Expression<Boolean> containsToken = criteriaBuilder.function("regexp_like", Boolean.class,
+                        criteriaBuilder.lower(root.get("instructions")), criteriaBuilder.literal(tokenPattern(token)));
+                predicates.add(criteriaBuilder.isTrue(containsToken));
             }
 
-            if (filter.getIncludeIngredients() != null && !filter.getIncludeIngredients().isEmpty()) {
-                Join<RecipeEntity, IngredientEntity> ingredientJoin = root.join("ingredients");
-                List<Predicate> ingredientPredicates = new ArrayList<>();
-                for (String ingredient : filter.getIncludeIngredients()) {
-                    ingredientPredicates.add(criteriaBuilder.equal(criteriaBuilder.lower(ingredientJoin.get("name")), ingredient.toLowerCase()));
+            // integer comparisons on the indexed name_id column instead of lower(name)
+            List<Integer> includeIds = ingredientIds(filter.getIncludeIngredients(), filter.getIngredientMatch());
+            if (includeIds != null) {
+                if (includeIds.isEmpty()) {
+                    predicates.add(criteriaBuilder.disjunction());
+                } else {
+                    Join<RecipeEntity, IngredientEntity> ingredientJoin = root.join("ingredients");
+                    query.distinct(true);
+                    predicates.add(ingredientJoin.get("ingredientName").get("id").in(includeIds));
                 }
-                query.distinct(true);
-                predicates.add(criteriaBuilder.or(ingredientPredicates.toArray(new Predicate[0])));
             }
 
-            if (filter.getExcludeIngredients() != null && !filter.getExcludeIngredients().isEmpty()) {
+            List<Integer> excludeIds = ingredientIds(filter.getExcludeIngredients(), filter.getIngredientMatch());
+            if (excludeIds != null && !excludeIds.isEmpty()) {
                 Subquery<Long> subquery = query.subquery(Long.class);
                 Root<RecipeEntity> subRoot = subquery.from(RecipeEntity.class);
                 Join<RecipeEntity, IngredientEntity> subJoin = subRoot.join("ingredients");
 
-                List<Predicate> excludePredicates = new ArrayList<>();
-                for (String ingredient : filter.getExcludeIngredients()) {
-                    excludePredicates.add(criteriaBuilder.equal(criteriaBuilder.lower(subJoin.get("name")), ingredient.toLowerCase()));
-                }
-
                 subquery.select(subRoot.get("id"))
-                        .where(criteriaBuilder.or(excludePredicates.toArray(new Predicate[0])));
+                        .where(subJoin.get("ingredientName").get("id").in(excludeIds));
 
                 predicates.add(criteriaBuilder.not(root.get("id").in(subquery)));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
+    }
+
+    // (sortField, id) strictly after the cursor position in the cursor's direction
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<RecipeEntity> seekAfter(SearchCursor cursor, String sortField) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Comparable> field = root.get(sortField);
+            Expression<Long> id = root.get("id");
+            Comparable value = cursor.typedValue();
+            if (cursor.direction().isAscending()) {
+                return criteriaBuilder.or(criteriaBuilder.greaterThan(field, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(field, value), criteriaBuilder.greaterThan(id, cursor.id())));
+            }
+            return criteriaBuilder.or(criteriaBuilder.lessThan(field, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(field, value), criteriaBuilder.lessThan(id, cursor.id())));
+        };
+    }
 
-        String orderBy = filter.getOrderBy() != null ? filter.getOrderBy().getValue() : "createdAt";
-        Sort.Direction direction = filter.getDirection() != null ? Sort.Direction.valueOf(filter.getDirection().getValue()) : Sort.Direction.DESC;
+    /**
+     * Dictionary ids of the filter's ingredient names, names never stored are left out. Null when the filter
+     * is not set, so an include filter of only unknown names gives an empty list and matches nothing.
+     * A fuzzy filter stands for the similar stored names of every name, resolved in memory before any recipe is read.
+     */
+    private List<Integer> ingredientIds(List<String> names, RecipeSearchRequest.IngredientMatchEnum match) {
+        if (CollectionUtils.isEmpty(names)) {
+            return null;
+        }
+        if (match == RecipeSearchRequest.IngredientMatchEnum.FUZZY) {
+            return names.stream()
+                    .flatMap(name -> ingredientDictionary.similarIds(name).stream())
+                    .distinct()
+                    .toList();
+        }
+        return names.stream()
+                .map(ingredientDictionary::idOf)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
 
-        Sort sort = Sort.by(direction, orderBy);
-        Pageable pageable = PageRequest.of(filter.getPage() - 1, filter.getPageSize(), sort);
-        Page<RecipeEntity> recipePage = recipeRepository.findAll(spec, pageable);
+    private String orderBy(RecipeSearchRequest filter) {
+        return filter.getOrderBy() != null ? filter.getOrderBy().getValue() : "createdAt";
+    }
+
+    private Sort.Direction direction(RecipeSearchRequest filter) {
+        return filter.getDirection() != null ? Sort.Direction.valueOf(filter.getDirection().getValue()) : Sort.Direction.DESC;
+    }
+
+    // Not transactional on purpose: every chunk is committed on its own, like the bulk import
+    public BulkRecipeDeleteResponse deleteRecipes(BulkRecipeDeleteRequest request) {
+        long start = System.nanoTime();
+        List<Long> ids = idsToDelete(request);
+
+        long deleted = 0;
+        for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+            deleted += recipeBulkWriter.delete(ids.subList(i, Math.min(i + BULK_CHUNK_SIZE, ids.size())));
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkRecipeDeleteResponse response = new BulkRecipeDeleteResponse();
+        response.setDeleted(deleted);
+        response.setDurationMillis(durationMillis);
+        log.info("Deleted {} recipes in {} ms", deleted, durationMillis);
+        return response;
+    }
+
+    private List<Long> idsToDelete(BulkRecipeDeleteRequest request) {
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Bulk delete takes either ids or a filter", ApiErrorCode.InvalidParameter);
+        }
+        if (request.getIds() != null) {
+            // the generated request does not enforce maxItems
+            if (request.getIds().size() > MAX_BULK_DELETE_SIZE) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "Bulk delete takes up to " + MAX_BULK_DELETE_SIZE + " ids", ApiErrorCode.InvalidParameter);
+            }
+            return request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+        }
+
+        RecipeSearchRequest filter = request.getFilter();
+        // an empty filter would wipe the whole catalog
+        if (!hasCriterion(filter)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Bulk delete filter needs at least one criterion", ApiErrorCode.InvalidParameter);
+        }
+        if (indexSynchronizer.isReady()) {
+            // ids the index holds but the database does not are simply not deleted
+            return Arrays.stream(matchIndexes(filter).toArray()).boxed().toList();
+        }
+        return recipeRepository.findBy(searchSpecification(filter), query -> query.as(RecipeId.class).all()).stream()
+                .map(RecipeId::getId)
+                .toList();
+    }
 
-        return recipeMapper.map(recipePage, filter.getPage(), filter.getPageSize(), recipePage.getTotalElements());
+    private interface RecipeId {
+        Long getId();
     }
 
     //Hard delete. Soft delete would require more logic to handle
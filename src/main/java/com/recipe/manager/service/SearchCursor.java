@@ -0,0 +1,68 @@
+package com.recipe.manager.service;
+
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.entrypoint.exception.ApiErrorCode;
+import com.recipe.manager.entrypoint.exception.ApiException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Keyset position in a sorted search result: the sort field, its direction and the (value, id) of the last
+ * recipe returned. Serialized as an opaque url-safe token.
+ */
+public record SearchCursor(String orderBy, Sort.Direction direction, String value, long id) {
+
+    private static final Set<String> ORDER_FIELDS = Set.of("name", "createdAt", "servings");
+    private static final String SEPARATOR = "\n";
+
+    public static SearchCursor after(Recipe last, String orderBy, Sort.Direction direction) {
+        String value = switch (orderBy) {
+            case "name" -> last.getName();
+            case "servings" -> String.valueOf(last.getServings());
+            default -> last.getCreatedAt().toInstant().toString();
+        };
+        return new SearchCursor(orderBy, direction, value, last.getId());
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the value goes last, so it may contain the separator
+            String[] parts = decoded.split(SEPARATOR, 4);
+            if (parts.length != 4 || !ORDER_FIELDS.contains(parts[0])) {
+                throw invalid();
+            }
+            SearchCursor cursor = new SearchCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[3], Long.parseLong(parts[2]));
+            cursor.typedValue();
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw invalid();
+        }
+    }
+
+    public String encode() {
+        String raw = orderBy + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The sort value converted to the type of the entity field it was taken from.
+     */
+    public Comparable<?> typedValue() {
+        return switch (orderBy) {
+            case "name" -> value;
+            case "servings" -> Integer.valueOf(value);
+            default -> Instant.parse(value);
+        };
+    }
+
+    private static ApiException invalid() {
+        return new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor", ApiErrorCode.InvalidParameter);
+    }
+}
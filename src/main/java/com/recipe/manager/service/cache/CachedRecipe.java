@@ -0,0 +1,49 @@
+package com.recipe.manager.service.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.recipe.manager.dto.Recipe;
+
+import java.io.IOException;
+
+/**
+ * A recipe together with its encoded JSON. It serializes by writing the stored bytes, the fields are only kept
+ * for code that reads the DTO, like the search cursor. Recipes never change after creation, so the two cannot
+ * drift apart.
+ */
+@JsonSerialize(using = CachedRecipe.Serializer.class)
+public class CachedRecipe extends Recipe {
+
+    private final RawJson json;
+
+    CachedRecipe(Recipe recipe, byte[] json) {
+        setId(recipe.getId());
+        setName(recipe.getName());
+        setDescription(recipe.getDescription());
+        setIsVegetarian(recipe.getIsVegetarian());
+        setServings(recipe.getServings());
+        setInstructions(recipe.getInstructions());
+        setIngredients(recipe.getIngredients());
+        setCreatedAt(recipe.getCreatedAt());
+        setUpdatedAt(recipe.getUpdatedAt());
+        this.json = new RawJson(json);
+    }
+
+    int jsonLength() {
+        return json.length();
+    }
+
+    public static class Serializer extends StdSerializer<CachedRecipe> {
+
+        public Serializer() {
+            super(CachedRecipe.class);
+        }
+
+        @Override
+        public void serialize(CachedRecipe recipe, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(recipe.json);
+        }
+    }
+}
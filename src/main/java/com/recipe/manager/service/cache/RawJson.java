@@ -0,0 +1,116 @@
+package com.recipe.manager.service.cache;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An already encoded UTF-8 JSON value. A byte based generator copies the bytes straight into its output buffer,
+ * the character based one has to decode them first. Raw values are written unquoted; should a generator ask
+ * for the quoted form, it gets the value escaped as a JSON string like any {@link SerializedString}.
+ */
+final class RawJson implements SerializableString {
+
+    private final byte[] utf8;
+
+    RawJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    int length() {
+        return utf8.length;
+    }
+
+    @Override
+    public String getValue() {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String value = getValue();
+        if (offset + value.length() > buffer.length) {
+            return -1;
+        }
+        value.getChars(0, value.length(), buffer, offset);
+        return value.length();
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (utf8.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return quoted().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return quoted().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return quoted().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return quoted().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return quoted().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+        return quoted().putQuotedUTF8(buffer);
+    }
+
+    // the value as a JSON string literal, escaped by Jackson
+    private SerializedString quoted() {
+        return new SerializedString(getValue());
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
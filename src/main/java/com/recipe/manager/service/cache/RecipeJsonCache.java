@@ -0,0 +1,94 @@
+package com.recipe.manager.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.index.RecipeIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Encoded JSON of single recipes, so a search page is written by concatenating ready fragments instead of mapping
+ * and serializing every recipe again. Bounded by the total size of the fragments.
+ * <p>
+ * Entries are only created from committed data: after the commit of a create, or when a recipe is read outside
+ * of a writing transaction. As a {@link RecipeIndex} the cache drops a recipe together with the search indexes,
+ * after a delete commits or when its create rolls back.
+ */
+@Component
+public class RecipeJsonCache implements RecipeIndex {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedRecipe> cache;
+
+    public RecipeJsonCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${recipe.json-cache.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CachedRecipe recipe) -> recipe.jsonLength())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recipe-json");
+    }
+
+    public Map<Long, CachedRecipe> getAll(Collection<Long> recipeIds) {
+        return cache.getAllPresent(recipeIds);
+    }
+
+    public CachedRecipe put(Recipe recipe) {
+        CachedRecipe cached = encode(recipe);
+        cache.put(recipe.getId(), cached);
+        return cached;
+    }
+
+    /**
+     * Caches a recipe written by the current transaction once it commits, other readers must not see it earlier.
+     */
+    public void putAfterCommit(Recipe recipe) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(recipe);
+                }
+            });
+        } else {
+            put(recipe);
+        }
+    }
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        // a persisted entity is not flushed yet, entries are made from DTOs instead
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        cache.invalidate(recipeId);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private CachedRecipe encode(Recipe recipe) {
+        try {
+            return new CachedRecipe(recipe, objectMapper.writeValueAsBytes(recipe));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
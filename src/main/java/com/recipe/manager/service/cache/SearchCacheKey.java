@@ -0,0 +1,45 @@
+package com.recipe.manager.service.cache;
+
+import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.service.IngredientDictionary;
+import com.recipe.manager.service.index.Tokenizer;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Normalized search request plus the data version it was answered at. Requests that only differ in ingredient
+ * case or order, or in keyword order, share an entry; any write moves to a new version and so to new entries.
+ */
+public record SearchCacheKey(long version, Boolean isVegetarian, Integer servings, List<String> includeIngredients,
+                             List<String> excludeIngredients, String ingredientMatch, List<String> instructionTokens,
+                             Integer page, Integer pageSize, String orderBy, String direction, String count, String cursor) {
+
+    public static SearchCacheKey of(long version, RecipeSearchRequest request) {
+        boolean cursorMode = request.getCursor() != null;
+        return new SearchCacheKey(
+                version,
+                request.getIsVegetarian(),
+                request.getServings(),
+                normalizeIngredients(request.getIncludeIngredients()),
+                normalizeIngredients(request.getExcludeIngredients()),
+                request.getIngredientMatch() == null ? null : request.getIngredientMatch().getValue(),
+                StringUtils.hasText(request.getInstruction()) ? Tokenizer.tokenize(request.getInstruction()).stream().distinct().sorted().toList() : List.of(),
+                // a cursor carries its own position and order
+                cursorMode ? null : request.getPage(),
+                request.getPageSize(),
+                cursorMode || request.getOrderBy() == null ? null : request.getOrderBy().getValue(),
+                cursorMode || request.getDirection() == null ? null : request.getDirection().getValue(),
+                // no total in cursor mode either way
+                cursorMode || request.getCount() == null ? null : request.getCount().getValue(),
+                request.getCursor());
+    }
+
+    private static List<String> normalizeIngredients(Collection<String> names) {
+        if (names == null) {
+            return List.of();
+        }
+        return names.stream().map(IngredientDictionary::normalize).distinct().sorted().toList();
+    }
+}
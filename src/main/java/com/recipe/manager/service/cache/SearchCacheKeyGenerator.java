@@ -0,0 +1,24 @@
+package com.recipe.manager.service.cache;
+
+import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+@Component
+public class SearchCacheKeyGenerator implements KeyGenerator {
+
+    private final RecipeIndexSynchronizer indexSynchronizer;
+
+    public SearchCacheKeyGenerator(RecipeIndexSynchronizer indexSynchronizer) {
+        this.indexSynchronizer = indexSynchronizer;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        // the version is read before the search runs, so a write during the search lands on a newer key
+        return SearchCacheKey.of(indexSynchronizer.version(), (RecipeSearchRequest) params[0]);
+    }
+}
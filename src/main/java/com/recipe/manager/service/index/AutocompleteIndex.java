@@ -0,0 +1,214 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.IngredientDictionary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ingredient and recipe names by prefix, for type-ahead. Ingredients weigh the number of recipes using them,
+ * recipe names the number of recipes carrying them, so 1.
+ * <p>
+ * Lookups never take a lock: they read immutable {@link PrefixCompletions} that {@link #refresh()} rebuilds from
+ * the counts kept here and swaps in with one volatile write. Writes only update the counts, so a burst of them
+ * costs one rebuild, and the recipe names are kept in key order so a rebuild is a walk instead of a sort. Writers
+ * only wait for that walk to copy the counts, the completions are built after the lock is released. The
+ * first completions are built as soon as the indexes are loaded, new names show up after the next refresh, once
+ * a second by default.
+ */
+@Component
+public class AutocompleteIndex implements RecipeIndex {
+
+    /**
+     * A completed name and its weight.
+     */
+    public record Completion(String text, int weight) {
+    }
+
+    private record Snapshot(PrefixCompletions ingredients, PrefixCompletions recipes) {
+    }
+
+    // names in key order with their weights, copied out of the counts
+    private record Weights(String[] keys, String[] texts, int[] weights) {
+
+        PrefixCompletions completions() {
+            return new PrefixCompletions(keys, texts, weights);
+        }
+    }
+
+    // names in key order, equal keys in text order
+    private record Name(String key, String text) implements Comparable<Name> {
+
+        private static final Comparator<Name> ORDER = Comparator.comparing(Name::key).thenComparing(Name::text);
+
+        @Override
+        public int compareTo(Name other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(PrefixCompletions.EMPTY, PrefixCompletions.EMPTY);
+
+    private final IngredientDictionary ingredientDictionary;
+    private final Map<Long, int[]> ingredientsByRecipe = new HashMap<>();
+    private final Map<Integer, Integer> recipesPerIngredient = new HashMap<>();
+    private final Map<Long, Name> namesByRecipe = new HashMap<>();
+    private final TreeMap<Name, Integer> recipesPerName = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long changes;
+    private long builtChanges;
+    private long clears;
+    private volatile Snapshot snapshot = EMPTY;
+
+    public AutocompleteIndex(IngredientDictionary ingredientDictionary) {
+        this.ingredientDictionary = ingredientDictionary;
+    }
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        int[] ingredients = recipe.getIngredients().stream()
+                .mapToInt(ingredient -> ingredient.getIngredientName().getId())
+                .distinct()
+                .toArray();
+        Name name = new Name(IngredientDictionary.normalize(recipe.getName()), recipe.getName());
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipe.getId());
+            for (int ingredient : ingredients) {
+                recipesPerIngredient.merge(ingredient, 1, Integer::sum);
+            }
+            ingredientsByRecipe.put(recipe.getId(), ingredients);
+            recipesPerName.merge(name, 1, Integer::sum);
+            namesByRecipe.put(recipe.getId(), name);
+            changes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            if (removeInternal(recipeId)) {
+                changes++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ingredientsByRecipe.clear();
+            recipesPerIngredient.clear();
+            namesByRecipe.clear();
+            recipesPerName.clear();
+            changes++;
+            clears++;
+            snapshot = EMPTY;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onReady() {
+        refresh();
+    }
+
+    /**
+     * Up to {@code limit} ingredient names starting with the prefix, most used first.
+     */
+    public List<Completion> ingredients(String prefix, int limit) {
+        return snapshot.ingredients().top(IngredientDictionary.normalize(prefix), limit);
+    }
+
+    /**
+     * Up to {@code limit} recipe names starting with the prefix, in alphabetical order.
+     */
+    public List<Completion> recipes(String prefix, int limit) {
+        return snapshot.recipes().top(IngredientDictionary.normalize(prefix), limit);
+    }
+
+    /**
+     * Rebuilds the completions when names changed since the last rebuild.
+     */
+    @Scheduled(fixedDelayString = "${recipe.autocomplete.refresh:PT1S}")
+    public synchronized void refresh() {
+        Map<Integer, Integer> ingredientCounts;
+        Weights recipeNames;
+        long building;
+        long clearsSeen;
+        lock.readLock().lock();
+        try {
+            if (changes == builtChanges) {
+                return;
+            }
+            ingredientCounts = new HashMap<>(recipesPerIngredient);
+            recipeNames = weights(recipesPerName);
+            building = changes;
+            clearsSeen = clears;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Snapshot built = new Snapshot(ingredientCompletions(ingredientCounts), recipeNames.completions());
+        lock.readLock().lock();
+        try {
+            // a clear while building emptied the counts, the next refresh starts over from them
+            if (clears == clearsSeen) {
+                snapshot = built;
+                builtChanges = building;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the ingredient names are few, sorting them is cheaper than keeping them in order on every write
+    private PrefixCompletions ingredientCompletions(Map<Integer, Integer> counts) {
+        TreeMap<Name, Integer> recipesPerIngredientName = new TreeMap<>();
+        counts.forEach((id, count) -> {
+            String text = ingredientDictionary.name(id);
+            recipesPerIngredientName.put(new Name(IngredientDictionary.normalize(text), text), count);
+        });
+        return weights(recipesPerIngredientName).completions();
+    }
+
+    private static Weights weights(TreeMap<Name, Integer> names) {
+        String[] keys = new String[names.size()];
+        String[] texts = new String[keys.length];
+        int[] counts = new int[keys.length];
+        int i = 0;
+        for (Map.Entry<Name, Integer> entry : names.entrySet()) {
+            keys[i] = entry.getKey().key();
+            texts[i] = entry.getKey().text();
+            counts[i++] = entry.getValue();
+        }
+        return new Weights(keys, texts, counts);
+    }
+
+    private boolean removeInternal(long recipeId) {
+        int[] ingredients = ingredientsByRecipe.remove(recipeId);
+        if (ingredients == null) {
+            return false;
+        }
+        for (int ingredient : ingredients) {
+            recipesPerIngredient.computeIfPresent(ingredient, (id, count) -> count == 1 ? null : count - 1);
+        }
+        recipesPerName.computeIfPresent(namesByRecipe.remove(recipeId), (name, count) -> count == 1 ? null : count - 1);
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.recipe.manager.service.index;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Multimap of long bucket keys to recipe ids, in primitive arrays: an open addressing table of keys pointing to
+ * chains of entries. Most LSH buckets hold a single recipe, so a map of boxed keys to lists would cost several
+ * times the memory. Removed entries are reused, buckets left empty are dropped when the table is rebuilt.
+ * Not thread safe, callers guard it.
+ */
+final class BandBuckets {
+
+    private static final int NONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private int[] heads = empty(MIN_CAPACITY);
+    private boolean[] used = new boolean[MIN_CAPACITY];
+    private int usedSlots;
+
+    private long[] ids = new long[MIN_CAPACITY];
+    private int[] next = new int[MIN_CAPACITY];
+    private int entries;
+    private int free = NONE;
+
+    void add(long key, long id) {
+        int slot = slot(key);
+        if (slot < 0) {
+            if ((usedSlots + 1) * 2 > keys.length) {
+                rebuild();
+                slot = slot(key);
+            }
+            slot = -slot - 1;
+            keys[slot] = key;
+            used[slot] = true;
+            usedSlots++;
+        }
+        int entry = newEntry();
+        ids[entry] = id;
+        next[entry] = heads[slot];
+        heads[slot] = entry;
+    }
+
+    void remove(long key, long id) {
+        int slot = slot(key);
+        if (slot < 0) {
+            return;
+        }
+        int previous = NONE;
+        for (int entry = heads[slot]; entry != NONE; previous = entry, entry = next[entry]) {
+            if (ids[entry] == id) {
+                if (previous == NONE) {
+                    heads[slot] = next[entry];
+                } else {
+                    next[previous] = next[entry];
+                }
+                next[entry] = free;
+                free = entry;
+                return;
+            }
+        }
+    }
+
+    void forEach(long key, LongConsumer action) {
+        int slot = slot(key);
+        if (slot < 0) {
+            return;
+        }
+        for (int entry = heads[slot]; entry != NONE; entry = next[entry]) {
+            action.accept(ids[entry]);
+        }
+    }
+
+    void clear() {
+        keys = new long[MIN_CAPACITY];
+        heads = empty(MIN_CAPACITY);
+        used = new boolean[MIN_CAPACITY];
+        usedSlots = 0;
+        ids = new long[MIN_CAPACITY];
+        next = new int[MIN_CAPACITY];
+        entries = 0;
+        free = NONE;
+    }
+
+    // the key's slot, or -(free slot + 1) when the key has none. Slots stay used when their chain runs empty,
+    // so probing never has to skip deleted slots
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private int newEntry() {
+        if (free != NONE) {
+            int entry = free;
+            free = next[entry];
+            return entry;
+        }
+        if (entries == ids.length) {
+            ids = Arrays.copyOf(ids, entries * 2);
+            next = Arrays.copyOf(next, entries * 2);
+        }
+        return entries++;
+    }
+
+    // drops the empty buckets and sizes the table for four times the remaining ones
+    private void rebuild() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        int buckets = 0;
+        for (int head : oldHeads) {
+            if (head != NONE) {
+                buckets++;
+            }
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < buckets * 4) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        heads = empty(capacity);
+        used = new boolean[capacity];
+        usedSlots = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] != NONE) {
+                int slot = -slot(oldKeys[i]) - 1;
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+                used[slot] = true;
+                usedSlots++;
+            }
+        }
+    }
+
+    private static int[] empty(int capacity) {
+        int[] heads = new int[capacity];
+        Arrays.fill(heads, NONE);
+        return heads;
+    }
+}
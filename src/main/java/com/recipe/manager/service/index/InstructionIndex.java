@@ -0,0 +1,101 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over recipe instructions: token -> sorted recipe ids.
+ * Replaces the LIKE '%term%' scan over the instructions column.
+ */
+@Component
+public class InstructionIndex implements RecipeIndex {
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> tokensByRecipe = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        Set<String> tokens = new LinkedHashSet<>(Tokenizer.tokenize(recipe.getInstructions()));
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipe.getId());
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new PostingList()).add(recipe.getId());
+            }
+            tokensByRecipe.put(recipe.getId(), tokens.toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByRecipe.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of recipes whose instructions contain every token of the query, sorted ascending.
+     * Returns null when the query has no tokens, so the caller can skip the filter.
+     */
+    public long[] search(String query) {
+        Set<String> tokens = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = tokens.stream().map(postings::get).toList();
+            if (lists.contains(null)) {
+                return new long[0];
+            }
+            // intersect starting from the rarest token to keep intermediate results small
+            List<PostingList> sorted = lists.stream().sorted(Comparator.comparingInt(PostingList::size)).toList();
+            long[] result = sorted.getFirst().toArray();
+            for (int i = 1; i < sorted.size() && result.length > 0; i++) {
+                result = sorted.get(i).intersect(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long recipeId) {
+        String[] tokens = tokensByRecipe.remove(recipeId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list != null && list.remove(recipeId) && list.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+}
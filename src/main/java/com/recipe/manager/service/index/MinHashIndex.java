@@ -0,0 +1,203 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality sensitive hashing of recipe ingredient sets, for finding recipes with similar ingredients without
+ * comparing against every recipe.
+ * <p>
+ * Every recipe gets a MinHash signature of {@code bands * rows} values, the minimum of one hash function over its
+ * ingredient ids each. Two sets agree on a value with a probability equal to their Jaccard similarity. The
+ * signature is cut into bands of {@code rows} values and the recipe is put into one bucket per band. Recipes
+ * sharing a bucket are the candidates, and only those are compared by their exact Jaccard similarity.
+ * <p>
+ * A pair of similarity s shares a bucket with probability 1 - (1 - s^rows)^bands, an S-curve with its steepest
+ * point near (1/bands)^(1/rows). More rows make the curve steeper and the candidates fewer and closer, more bands
+ * find more of the similar recipes. Signatures are not stored: the buckets of a removed recipe are found by
+ * hashing its ingredients again.
+ */
+@Component
+public class MinHashIndex implements RecipeIndex {
+
+    /**
+     * A recipe and its Jaccard similarity to the one looked up.
+     */
+    public record Match(long recipeId, double similarity) {
+    }
+
+    // the heap's head is the weakest of the kept recipes. Equal similarities rank newer recipes first
+    private static final Comparator<Match> WEAKEST_FIRST = Comparator.comparingDouble(Match::similarity)
+            .thenComparingLong(Match::recipeId);
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    private final Map<Long, int[]> ingredientsByRecipe = new HashMap<>();
+    private final BandBuckets buckets = new BandBuckets();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MinHashIndex(@Value("${recipe.similar.bands:16}") int bands, @Value("${recipe.similar.rows:3}") int rows) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        // fixed seeds: the hash functions only have to differ from each other, not between runs
+        SplittableRandom random = new SplittableRandom(bands * 31L + rows);
+        this.seeds = random.longs(bands * rows).toArray();
+    }
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        int[] ingredients = recipe.getIngredients().stream()
+                .mapToInt(ingredient -> ingredient.getIngredientName().getId())
+                .distinct()
+                .sorted()
+                .toArray();
+        long[] keys = bandKeys(ingredients);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipe.getId());
+            for (long key : keys) {
+                buckets.add(key, recipe.getId());
+            }
+            ingredientsByRecipe.put(recipe.getId(), ingredients);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ingredientsByRecipe.clear();
+            buckets.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} recipes sharing a bucket with the recipe, the most similar first.
+     * Returns null when the recipe is not indexed.
+     */
+    public List<Match> similar(long recipeId, int limit) {
+        PriorityQueue<Match> best = new PriorityQueue<>(WEAKEST_FIRST);
+        lock.readLock().lock();
+        try {
+            int[] ingredients = ingredientsByRecipe.get(recipeId);
+            if (ingredients == null) {
+                return null;
+            }
+            Set<Long> candidates = new HashSet<>();
+            for (long key : bandKeys(ingredients)) {
+                buckets.forEach(key, candidates::add);
+            }
+            candidates.remove(recipeId);
+            for (Long candidate : candidates) {
+                offer(best, new Match(candidate, jaccard(ingredients, ingredientsByRecipe.get(candidate))), limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll());
+        }
+        return ranked.reversed();
+    }
+
+    // one key per band, the band number is hashed in so equal rows of different bands do not meet
+    private long[] bandKeys(int[] ingredients) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                long seed = seeds[band * rows + row];
+                long min = Long.MAX_VALUE;
+                for (int ingredient : ingredients) {
+                    min = Math.min(min, mix(ingredient ^ seed));
+                }
+                key = mix(key ^ min);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    // both sorted and distinct
+    static double jaccard(int[] a, int[] b) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private static void offer(PriorityQueue<Match> best, Match candidate, int limit) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (limit > 0 && WEAKEST_FIRST.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private void removeInternal(long recipeId) {
+        int[] ingredients = ingredientsByRecipe.remove(recipeId);
+        if (ingredients == null) {
+            return;
+        }
+        for (long key : bandKeys(ingredients)) {
+            buckets.remove(key, recipeId);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.data.UnitType;
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * What every recipe needs of each of its ingredients, for finding the recipes a pantry covers.
+ * <p>
+ * A lookup walks the recipe ids of every pantry ingredient and counts per recipe how many of its ingredients the
+ * pantry covers. A recipe missing at most the allowed number is cookable, so only recipes sharing an ingredient
+ * with the pantry are ever visited, however many ingredients the catalog knows.
+ */
+@Component
+public class PantryIndex implements RecipeIndex {
+
+    /**
+     * Amount of an ingredient a recipe needs. The unit is null when the recipe lists the ingredient in both units.
+     */
+    public record Need(int ingredientId, int quantity, UnitType unit) {
+
+        Need plus(Need other) {
+            return unit == other.unit ? new Need(ingredientId, quantity + other.quantity, unit) : new Need(ingredientId, 0, null);
+        }
+    }
+
+    /**
+     * Amount of an ingredient at hand. Without a quantity any amount is covered.
+     */
+    public record Supply(int ingredientId, Integer quantity, UnitType unit) {
+
+        boolean covers(Need need) {
+            return quantity == null || (unit == need.unit() && quantity >= need.quantity());
+        }
+
+        Supply plus(Supply other) {
+            if (quantity == null || other.quantity == null) {
+                return new Supply(ingredientId, null, null);
+            }
+            // amounts in different units do not add up, the first one counts
+            return unit == other.unit ? new Supply(ingredientId, quantity + other.quantity, unit) : this;
+        }
+    }
+
+    /**
+     * A cookable recipe and the ids of the ingredients the pantry lacks or has too little of.
+     */
+    public record Match(long recipeId, List<Integer> missingIngredients) {
+    }
+
+    public record Result(List<Match> matches, long total) {
+    }
+
+    // the heap's head is the weakest of the kept recipes: most missing, then oldest
+    private record Candidate(long recipeId, int missing) {
+    }
+
+    private static final Comparator<Candidate> WEAKEST_FIRST = Comparator.comparingInt(Candidate::missing).reversed()
+            .thenComparingLong(Candidate::recipeId);
+
+    private final Map<Integer, Roaring64Bitmap> byIngredient = new HashMap<>();
+    private final Map<Long, Need[]> needs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        Map<Integer, Need> byId = new LinkedHashMap<>();
+        for (IngredientEntity ingredient : recipe.getIngredients()) {
+            Need need = new Need(ingredient.getIngredientName().getId(), ingredient.getQuantity(), ingredient.getUnit());
+            byId.merge(need.ingredientId(), need, Need::plus);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipe.getId());
+            for (Integer ingredientId : byId.keySet()) {
+                byIngredient.computeIfAbsent(ingredientId, i -> new Roaring64Bitmap()).addLong(recipe.getId());
+            }
+            needs.put(recipe.getId(), byId.values().toArray(new Need[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byIngredient.clear();
+            needs.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes sharing at least one ingredient with the pantry and missing at most {@code maxMissing} of theirs.
+     * Returns up to {@code limit} of them, fewest missing first and newer recipes first among equals, together
+     * with the number of all cookable recipes.
+     */
+    public Result cookable(Collection<Supply> pantry, int maxMissing, int limit) {
+        Map<Integer, Supply> supplies = new HashMap<>();
+        pantry.forEach(supply -> supplies.merge(supply.ingredientId(), supply, Supply::plus));
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> covered = new HashMap<>();
+            supplies.values().forEach(supply -> {
+                Roaring64Bitmap recipes = byIngredient.get(supply.ingredientId());
+                if (recipes == null) {
+                    return;
+                }
+                LongIterator ids = recipes.getLongIterator();
+                while (ids.hasNext()) {
+                    long id = ids.next();
+                    if (supply.covers(need(needs.get(id), supply.ingredientId()))) {
+                        covered.merge(id, 1, Integer::sum);
+                    }
+                }
+            });
+
+            long total = 0;
+            PriorityQueue<Candidate> best = new PriorityQueue<>(WEAKEST_FIRST);
+            for (Map.Entry<Long, Integer> entry : covered.entrySet()) {
+                int missing = needs.get(entry.getKey()).length - entry.getValue();
+                if (missing <= maxMissing) {
+                    total++;
+                    offer(best, new Candidate(entry.getKey(), missing), limit);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                long id = best.poll().recipeId();
+                matches.add(new Match(id, missing(needs.get(id), supplies)));
+            }
+            return new Result(matches.reversed(), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Need need(Need[] needs, int ingredientId) {
+        for (Need need : needs) {
+            if (need.ingredientId() == ingredientId) {
+                return need;
+            }
+        }
+        throw new IllegalStateException("Recipe is indexed under ingredient " + ingredientId + " it does not need");
+    }
+
+    private static List<Integer> missing(Need[] needs, Map<Integer, Supply> supplies) {
+        List<Integer> missing = new ArrayList<>();
+        for (Need need : needs) {
+            Supply supply = supplies.get(need.ingredientId());
+            if (supply == null || !supply.covers(need)) {
+                missing.add(need.ingredientId());
+            }
+        }
+        return missing;
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, Candidate candidate, int limit) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (limit > 0 && WEAKEST_FIRST.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private void removeInternal(long recipeId) {
+        Need[] removed = needs.remove(recipeId);
+        if (removed == null) {
+            return;
+        }
+        for (Need need : removed) {
+            Roaring64Bitmap recipes = byIngredient.get(need.ingredientId());
+            if (recipes != null) {
+                recipes.removeLong(recipeId);
+                if (recipes.isEmpty()) {
+                    byIngredient.remove(need.ingredientId());
+                }
+            }
+        }
+    }
+}
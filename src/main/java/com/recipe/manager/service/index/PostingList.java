@@ -0,0 +1,83 @@
+package com.recipe.manager.service.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of recipe ids. Ids are generated in increasing order, so adding is an append in the common case.
+ * Not thread safe, callers guard it.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            insertAt(-pos - 1, id);
+            return;
+        }
+        ensureCapacity();
+        ids[size++] = id;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Merge-intersection of this list with already sorted ids.
+     */
+    long[] intersect(long[] other) {
+        long[] result = new long[Math.min(size, other.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < size && j < other.length) {
+            if (ids[i] < other[j]) {
+                i++;
+            } else if (ids[i] > other[j]) {
+                j++;
+            } else {
+                result[n++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private void insertAt(int pos, long id) {
+        ensureCapacity();
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
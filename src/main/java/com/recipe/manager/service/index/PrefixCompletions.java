@@ -0,0 +1,123 @@
+package com.recipe.manager.service.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable weighted names in key order, for completing prefixes. The names starting with a prefix form one
+ * contiguous range, found with two binary searches. A segment tree over the weights finds the heaviest name of
+ * any range in logarithmic time, so the top names are taken from a heap of ranges split around every name taken:
+ * a lookup costs O(limit * log n) however many names share the prefix.
+ */
+final class PrefixCompletions {
+
+    static final PrefixCompletions EMPTY = new PrefixCompletions(new String[0], new String[0], new int[0]);
+
+    // a range of names and the position of its heaviest one
+    private record Range(int from, int to, int best) {
+    }
+
+    private final String[] keys;
+    private final String[] texts;
+    private final int[] weights;
+    // tree[1] covers all names, tree[n + i] is name i, every other node the better of its two children
+    private final int[] tree;
+
+    /**
+     * Takes the arrays as they are: keys sorted, texts and weights at the same positions.
+     */
+    PrefixCompletions(String[] keys, String[] texts, int[] weights) {
+        this.keys = keys;
+        this.texts = texts;
+        this.weights = weights;
+        int n = keys.length;
+        this.tree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            tree[n + i] = i;
+        }
+        for (int node = n - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Up to {@code limit} names whose key starts with the prefix, heaviest first and in key order among equals.
+     */
+    List<AutocompleteIndex.Completion> top(String prefix, int limit) {
+        int from = lowerBound(prefix);
+        int to = endOfPrefix(prefix, from);
+        List<AutocompleteIndex.Completion> top = new ArrayList<>(Math.min(limit, to - from));
+        if (from == to || limit <= 0) {
+            return top;
+        }
+        PriorityQueue<Range> ranges = new PriorityQueue<>(Comparator.comparingInt((Range range) -> weights[range.best()]).reversed()
+                .thenComparingInt(Range::best));
+        ranges.add(range(from, to));
+        while (top.size() < limit && !ranges.isEmpty()) {
+            Range range = ranges.poll();
+            top.add(new AutocompleteIndex.Completion(texts[range.best()], weights[range.best()]));
+            if (range.from() < range.best()) {
+                ranges.add(range(range.from(), range.best()));
+            }
+            if (range.best() + 1 < range.to()) {
+                ranges.add(range(range.best() + 1, range.to()));
+            }
+        }
+        return top;
+    }
+
+    private Range range(int from, int to) {
+        int best = -1;
+        int n = keys.length;
+        for (int left = from + n, right = to + n; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = best < 0 ? tree[left] : better(best, tree[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                best = best < 0 ? tree[right] : better(best, tree[right]);
+            }
+        }
+        return new Range(from, to, best);
+    }
+
+    private int better(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    // first position whose key is not below the prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // first position from which keys no longer start with the prefix, they all do before it
+    private int endOfPrefix(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,433 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of recipe ids per filterable value: vegetarian flag, servings and ingredient name id.
+ * Any filter combination is answered with AND/OR/ANDNOT, and the requested page is cut out of the result
+ * in memory, so the database is only asked for the recipes that end up in the response.
+ */
+@Component
+public class RecipeBitmapIndex implements RecipeIndex {
+
+    // below this size sorting the matches is cheaper than walking the global name or creation order
+    private static final long SORT_MATERIALIZE_LIMIT = 10_000;
+    // the database orders by (created_at, id), missing timestamps first
+    private static final Comparator<CreatedKey> CREATED_ORDER = Comparator
+            .comparing(CreatedKey::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(CreatedKey::id);
+    // most frequent first, ties by ingredient id to keep the order stable
+    private static final Comparator<RecipeFacets.IngredientCount> INGREDIENT_RANK = Comparator
+            .comparingLong(RecipeFacets.IngredientCount::count).reversed()
+            .thenComparingInt(RecipeFacets.IngredientCount::ingredientId);
+
+    private final Roaring64Bitmap all = new Roaring64Bitmap();
+    private final Roaring64Bitmap vegetarian = new Roaring64Bitmap();
+    private final NavigableMap<Integer, Roaring64Bitmap> byServing = new TreeMap<>();
+    private final Map<Integer, Roaring64Bitmap> byIngredient = new HashMap<>();
+    private final NavigableMap<String, Long> idByName = new TreeMap<>();
+    private final NavigableSet<CreatedKey> byCreatedAt = new TreeSet<>(CREATED_ORDER);
+    // neighbours in creation order whose ids are descending; while there are none, id order is creation order
+    private long createdOutOfIdOrder;
+    private final Map<Long, IndexedRecipe> recipes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record IndexedRecipe(String name, int serving, boolean vegetarian, Instant createdAt, int[] ingredients) {
+    }
+
+    private record CreatedKey(Instant createdAt, long id) {
+    }
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        long id = recipe.getId();
+        int[] ingredients = recipe.getIngredients().stream()
+                .mapToInt(ingredient -> ingredient.getIngredientName().getId())
+                .distinct()
+                .toArray();
+        IndexedRecipe indexed = new IndexedRecipe(recipe.getName(), recipe.getServing(), recipe.getVegeterian(),
+                recipe.getCreatedAt(), ingredients);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            all.addLong(id);
+            if (indexed.vegetarian()) {
+                vegetarian.addLong(id);
+            }
+            byServing.computeIfAbsent(indexed.serving(), s -> new Roaring64Bitmap()).addLong(id);
+            for (int ingredient : ingredients) {
+                byIngredient.computeIfAbsent(ingredient, i -> new Roaring64Bitmap()).addLong(id);
+            }
+            idByName.put(indexed.name(), id);
+            addCreated(new CreatedKey(indexed.createdAt(), id));
+            recipes.put(id, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            vegetarian.clear();
+            byServing.clear();
+            byIngredient.clear();
+            idByName.clear();
+            byCreatedAt.clear();
+            createdOutOfIdOrder = 0;
+            recipes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of recipes matching every given filter, ingredients given as dictionary ids. Null arguments are not
+     * applied, an empty include list matches nothing. Included ingredients are OR-ed, excluded ingredients are
+     * removed with ANDNOT.
+     * The returned bitmap is a private copy the caller may modify.
+     */
+    public Roaring64Bitmap match(Boolean isVegetarian, Integer servings, Collection<Integer> includeIngredients, Collection<Integer> excludeIngredients) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = all.clone();
+            if (isVegetarian != null) {
+                if (isVegetarian) {
+                    result.and(vegetarian);
+                } else {
+                    result.andNot(vegetarian);
+                }
+            }
+            if (servings != null) {
+                result.and(byServing.getOrDefault(servings, new Roaring64Bitmap()));
+            }
+            if (includeIngredients != null) {
+                result.and(unionOfIngredients(includeIngredients));
+            }
+            if (excludeIngredients != null && !excludeIngredients.isEmpty()) {
+                result.andNot(unionOfIngredients(excludeIngredients));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuts one page out of the matched ids in the requested order. Ties on {@code createdAt} and servings are
+     * broken by id in the same direction, like the database fallback does.
+     */
+    public List<Long> page(Roaring64Bitmap matches, String orderBy, boolean ascending, long offset, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        if (offset >= matches.getLongCardinality()) {
+            return page;
+        }
+        lock.readLock().lock();
+        try {
+            switch (orderBy) {
+                case "servings" -> pageByServing(matches, ascending, offset, limit, page);
+                case "name" -> pageByName(matches, ascending, null, offset, limit, page);
+                default -> pageByCreatedAt(matches, ascending, null, offset, limit, page);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #page}: the page starts right after the recipe with the given sort value and id.
+     * Id and servings positions are turned into an offset with rank queries, names and creation times are seeked
+     * in their own order.
+     */
+    public List<Long> pageAfter(Roaring64Bitmap matches, String orderBy, boolean ascending, Comparable<?> lastValue, long lastId, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            switch (orderBy) {
+                case "servings" -> pageByServing(matches, ascending, servingOffset(matches, ascending, (Integer) lastValue, lastId), limit, page);
+                case "name" -> pageByName(matches, ascending, (String) lastValue, 0, limit, page);
+                default -> pageByCreatedAt(matches, ascending, new CreatedKey((Instant) lastValue, lastId), 0, limit, page);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts within the matched ids, with the {@code topIngredients} most frequent ingredients.
+     * Null matches stand for the whole catalog: the bitmaps are maintained on every add and remove, so those
+     * counts are plain cardinalities. A filtered view intersects every bitmap with the matches, or counts the
+     * ingredients of the matched recipes directly when there are fewer of them than ingredient bitmaps.
+     */
+    public RecipeFacets facets(Roaring64Bitmap matches, int topIngredients) {
+        lock.readLock().lock();
+        try {
+            boolean unfiltered = matches == null;
+            // the matches were taken under an earlier lock, recipes removed since then are left out
+            Roaring64Bitmap current = unfiltered ? all : Roaring64Bitmap.and(matches, all);
+            long total = current.getLongCardinality();
+
+            long vegetarianCount = unfiltered ? vegetarian.getLongCardinality() : Roaring64Bitmap.andCardinality(vegetarian, current);
+            SortedMap<Integer, Long> servings = new TreeMap<>();
+            for (Map.Entry<Integer, Roaring64Bitmap> group : byServing.entrySet()) {
+                long count = unfiltered ? group.getValue().getLongCardinality() : Roaring64Bitmap.andCardinality(group.getValue(), current);
+                if (count > 0) {
+                    servings.put(group.getKey(), count);
+                }
+            }
+
+            // min-heap of the best ingredients so far, the weakest one on top
+            PriorityQueue<RecipeFacets.IngredientCount> top = new PriorityQueue<>(topIngredients + 1, INGREDIENT_RANK.reversed());
+            if (!unfiltered && total < byIngredient.size()) {
+                Map<Integer, Long> counts = new HashMap<>();
+                current.forEach(id -> {
+                    for (int ingredient : recipes.get(id).ingredients()) {
+                        counts.merge(ingredient, 1L, Long::sum);
+                    }
+                });
+                counts.forEach((ingredient, count) -> offer(top, new RecipeFacets.IngredientCount(ingredient, count), topIngredients));
+            } else {
+                for (Map.Entry<Integer, Roaring64Bitmap> ingredient : byIngredient.entrySet()) {
+                    long count = unfiltered ? ingredient.getValue().getLongCardinality() : Roaring64Bitmap.andCardinality(ingredient.getValue(), current);
+                    if (count > 0) {
+                        offer(top, new RecipeFacets.IngredientCount(ingredient.getKey(), count), topIngredients);
+                    }
+                }
+            }
+            List<RecipeFacets.IngredientCount> ingredients = new ArrayList<>(top);
+            ingredients.sort(INGREDIENT_RANK);
+            return new RecipeFacets(total, vegetarianCount, servings, ingredients);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<RecipeFacets.IngredientCount> top, RecipeFacets.IngredientCount candidate, int size) {
+        top.offer(candidate);
+        if (top.size() > size) {
+            top.poll();
+        }
+    }
+
+    private Roaring64Bitmap unionOfIngredients(Collection<Integer> ingredientIds) {
+        Roaring64Bitmap union = new Roaring64Bitmap();
+        for (Integer ingredientId : ingredientIds) {
+            Roaring64Bitmap bitmap = byIngredient.get(ingredientId);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private static long idOffset(Roaring64Bitmap bitmap, boolean ascending, long lastId) {
+        if (ascending) {
+            return bitmap.rankLong(lastId);
+        }
+        long below = lastId > 0 ? bitmap.rankLong(lastId - 1) : 0;
+        return bitmap.getLongCardinality() - below;
+    }
+
+    private long servingOffset(Roaring64Bitmap matches, boolean ascending, int lastServing, long lastId) {
+        long offset = 0;
+        for (Map.Entry<Integer, Roaring64Bitmap> group : byServing.entrySet()) {
+            int serving = group.getKey();
+            if (serving == lastServing) {
+                offset += idOffset(Roaring64Bitmap.and(group.getValue(), matches), ascending, lastId);
+            } else if (ascending == serving < lastServing) {
+                offset += Roaring64Bitmap.andCardinality(group.getValue(), matches);
+            }
+        }
+        return offset;
+    }
+
+    private void pageByServing(Roaring64Bitmap matches, boolean ascending, long offset, int limit, List<Long> page) {
+        Collection<Roaring64Bitmap> groups = ascending ? byServing.values() : byServing.descendingMap().values();
+        long skip = offset;
+        for (Roaring64Bitmap group : groups) {
+            long count = Roaring64Bitmap.andCardinality(group, matches);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            selectRange(Roaring64Bitmap.and(group, matches), ascending, skip, limit, page);
+            skip = 0;
+            if (page.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    private void pageByName(Roaring64Bitmap matches, boolean ascending, String after, long offset, int limit, List<Long> page) {
+        if (matches.getLongCardinality() <= SORT_MATERIALIZE_LIMIT) {
+            Comparator<Long> byName = Comparator.comparing(id -> recipes.get(id).name());
+            List<Long> ids = new ArrayList<>();
+            matches.forEach(id -> {
+                IndexedRecipe recipe = recipes.get(id);
+                if (recipe != null && (after == null || isAfter(recipe.name(), after, ascending))) {
+                    ids.add(id);
+                }
+            });
+            ids.sort(ascending ? byName : byName.reversed());
+            ids.stream().skip(offset).limit(limit).forEach(page::add);
+            return;
+        }
+        NavigableMap<String, Long> names;
+        if (ascending) {
+            names = after == null ? idByName : idByName.tailMap(after, false);
+        } else {
+            names = after == null ? idByName.descendingMap() : idByName.headMap(after, false).descendingMap();
+        }
+        long skip = offset;
+        for (Long id : names.values()) {
+            if (!matches.contains(id)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            page.add(id);
+            if (page.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    private void pageByCreatedAt(Roaring64Bitmap matches, boolean ascending, CreatedKey after, long offset, int limit, List<Long> page) {
+        if (createdOutOfIdOrder == 0) {
+            // ids were handed out in creation order, so a rank query finds the position
+            long skip = after == null ? offset : idOffset(matches, ascending, after.id());
+            selectRange(matches, ascending, skip, limit, page);
+            return;
+        }
+        if (matches.getLongCardinality() <= SORT_MATERIALIZE_LIMIT) {
+            List<CreatedKey> keys = new ArrayList<>();
+            matches.forEach(id -> {
+                IndexedRecipe recipe = recipes.get(id);
+                if (recipe != null) {
+                    CreatedKey key = new CreatedKey(recipe.createdAt(), id);
+                    if (after == null || isAfter(key, after, ascending)) {
+                        keys.add(key);
+                    }
+                }
+            });
+            keys.sort(ascending ? CREATED_ORDER : CREATED_ORDER.reversed());
+            keys.stream().skip(offset).limit(limit).forEach(key -> page.add(key.id()));
+            return;
+        }
+        NavigableSet<CreatedKey> keys;
+        if (ascending) {
+            keys = after == null ? byCreatedAt : byCreatedAt.tailSet(after, false);
+        } else {
+            keys = after == null ? byCreatedAt.descendingSet() : byCreatedAt.headSet(after, false).descendingSet();
+        }
+        long skip = offset;
+        for (CreatedKey key : keys) {
+            if (!matches.contains(key.id())) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            page.add(key.id());
+            if (page.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isAfter(CreatedKey key, CreatedKey after, boolean ascending) {
+        int comparison = CREATED_ORDER.compare(key, after);
+        return ascending ? comparison > 0 : comparison < 0;
+    }
+
+    private static boolean isAfter(String name, String after, boolean ascending) {
+        int comparison = name.compareTo(after);
+        return ascending ? comparison > 0 : comparison < 0;
+    }
+
+    private static void selectRange(Roaring64Bitmap bitmap, boolean ascending, long offset, int limit, List<Long> page) {
+        long cardinality = bitmap.getLongCardinality();
+        for (long i = offset; i < cardinality && page.size() < limit; i++) {
+            page.add(bitmap.select(ascending ? i : cardinality - 1 - i));
+        }
+    }
+
+    private void removeInternal(long recipeId) {
+        IndexedRecipe indexed = recipes.remove(recipeId);
+        if (indexed == null) {
+            return;
+        }
+        all.removeLong(recipeId);
+        vegetarian.removeLong(recipeId);
+        removeFrom(byServing, indexed.serving(), recipeId);
+        for (int ingredient : indexed.ingredients()) {
+            removeFrom(byIngredient, ingredient, recipeId);
+        }
+        idByName.remove(indexed.name(), recipeId);
+        removeCreated(new CreatedKey(indexed.createdAt(), recipeId));
+    }
+
+    private void addCreated(CreatedKey key) {
+        CreatedKey lower = byCreatedAt.lower(key);
+        CreatedKey higher = byCreatedAt.higher(key);
+        createdOutOfIdOrder += outOfIdOrder(lower, key) + outOfIdOrder(key, higher) - outOfIdOrder(lower, higher);
+        byCreatedAt.add(key);
+    }
+
+    private void removeCreated(CreatedKey key) {
+        byCreatedAt.remove(key);
+        CreatedKey lower = byCreatedAt.lower(key);
+        CreatedKey higher = byCreatedAt.higher(key);
+        createdOutOfIdOrder -= outOfIdOrder(lower, key) + outOfIdOrder(key, higher) - outOfIdOrder(lower, higher);
+    }
+
+    private static int outOfIdOrder(CreatedKey earlier, CreatedKey later) {
+        return earlier != null && later != null && earlier.id() > later.id() ? 1 : 0;
+    }
+
+    private static <K> void removeFrom(Map<K, Roaring64Bitmap> bitmaps, K key, long recipeId) {
+        Roaring64Bitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.removeLong(recipeId);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.recipe.manager.service.index;
+
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Counts of a set of recipes per vegetarian flag, per servings value and for the most frequent ingredients.
+ * Ingredients are dictionary ids, ordered by descending count.
+ */
+public record RecipeFacets(long total, long vegetarian, SortedMap<Integer, Long> servings, List<IngredientCount> ingredients) {
+
+    public record IngredientCount(int ingredientId, long count) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+
+/**
+ * In-memory structure derived from the recipes table.
+ * Implementations are kept in sync by {@link RecipeIndexSynchronizer} and must be thread safe.
+ */
+public interface RecipeIndex {
+
+    void add(RecipeEntity recipe);
+
+    void remove(Long recipeId);
+
+    void clear();
+
+    /**
+     * Called once the indexes hold the whole catalog, after startup loading or a snapshot restore.
+     */
+    default void onReady() {
+    }
+}
@@ -0,0 +1,61 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Loads the in-memory indexes from the database on startup, before the application reports itself ready.
+ * Walks the table by id in chunks and clears the persistence context between them to keep memory flat.
+ * Skipped when a snapshot restore already filled them.
+ */
+@Component
+public class RecipeIndexInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeIndexInitializer.class);
+    private static final int CHUNK_SIZE = 1000;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeIndexSynchronizer synchronizer;
+    private final EntityManager entityManager;
+
+    public RecipeIndexInitializer(RecipeRepository recipeRepository, RecipeIndexSynchronizer synchronizer, EntityManager entityManager) {
+        this.recipeRepository = recipeRepository;
+        this.synchronizer = synchronizer;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(ApplicationArguments args) {
+        if (synchronizer.isReady()) {
+            log.info("Indexes were loaded with the snapshot, skipping");
+            return;
+        }
+        synchronizer.clear();
+        long lastId = 0;
+        long total = 0;
+        List<RecipeEntity> chunk;
+        do {
+            chunk = recipeRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            synchronizer.load(chunk);
+            lastId = chunk.getLast().getId();
+            total += chunk.size();
+            entityManager.clear();
+        } while (chunk.size() == CHUNK_SIZE);
+        synchronizer.markReady();
+        log.info("Indexed {} recipes", total);
+    }
+}
@@ -0,0 +1,31 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callback feeding {@link RecipeIndexSynchronizer}. Hibernate resolves it through the Spring bean container,
+ * so every write path (service, repository, tests) keeps the indexes current.
+ */
+@Component
+public class RecipeIndexListener {
+
+    private final ObjectProvider<RecipeIndexSynchronizer> synchronizer;
+
+    public RecipeIndexListener(ObjectProvider<RecipeIndexSynchronizer> synchronizer) {
+        this.synchronizer = synchronizer;
+    }
+
+    @PostPersist
+    public void onPersist(RecipeEntity recipe) {
+        synchronizer.ifAvailable(s -> s.onPersisted(recipe));
+    }
+
+    @PostRemove
+    public void onRemove(RecipeEntity recipe) {
+        synchronizer.ifAvailable(s -> s.onRemoved(recipe.getId()));
+    }
+}
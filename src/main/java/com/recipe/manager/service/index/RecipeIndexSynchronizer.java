@@ -0,0 +1,132 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies recipe writes to every {@link RecipeIndex}.
+ * Additions are visible immediately (so a transaction can read its own writes) and are reverted on rollback.
+ * Removals are applied after commit. That way an index may briefly hold ids missing in the database, but never
+ * misses a stored recipe, so index results are always treated as candidates and the database has the final word.
+ * <p>
+ * Every change, and the end of every writing transaction, bumps the data {@link #version()}. Anything derived from
+ * search results can be keyed by it and never serves data older than the last write.
+ */
+@Component
+public class RecipeIndexSynchronizer {
+
+    private final List<RecipeIndex> indexes;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger uncommittedAdditions = new AtomicInteger();
+    private volatile boolean ready;
+    // false until the first load starts; whatever was indexed before it would be cleared unused
+    private volatile boolean loadStarted;
+
+    public RecipeIndexSynchronizer(List<RecipeIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    public void onPersisted(RecipeEntity recipe) {
+        if (!loadStarted) {
+            // e.g. seeding: the startup load reads these recipes back from the database
+            version.incrementAndGet();
+            return;
+        }
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (transactional) {
+            uncommittedAdditions.incrementAndGet();
+        }
+        indexes.forEach(index -> index.add(recipe));
+        version.incrementAndGet();
+        if (transactional) {
+            Long recipeId = recipe.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        indexes.forEach(index -> index.remove(recipeId));
+                    }
+                    uncommittedAdditions.decrementAndGet();
+                    // committed rows become visible to other transactions only now
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public void onRemoved(Long recipeId) {
+        onRemoved(List.of(recipeId));
+    }
+
+    /**
+     * For set-based deletes that bypass the entity listener. Ids that are not indexed are ignored.
+     */
+    public void onRemoved(Collection<Long> recipeIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(recipeIds);
+                }
+            });
+        } else {
+            remove(recipeIds);
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * True while running transactions have added recipes to the indexes, so counts taken from them may include
+     * recipes that are not committed yet.
+     */
+    public boolean hasUncommittedAdditions() {
+        return uncommittedAdditions.get() > 0;
+    }
+
+    /**
+     * False until the startup load has finished. Until then searches have to go to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        indexes.forEach(RecipeIndex::onReady);
+        version.incrementAndGet();
+    }
+
+    public void clear() {
+        loadStarted = true;
+        ready = false;
+        indexes.forEach(RecipeIndex::clear);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Bulk load path used at startup: no transaction bookkeeping.
+     */
+    public void load(Iterable<RecipeEntity> recipes) {
+        for (RecipeEntity recipe : recipes) {
+            indexes.forEach(index -> index.add(recipe));
+        }
+        version.incrementAndGet();
+    }
+
+    private void remove(Collection<Long> recipeIds) {
+        for (Long recipeId : recipeIds) {
+            indexes.forEach(index -> index.remove(recipeId));
+        }
+        version.incrementAndGet();
+    }
+}
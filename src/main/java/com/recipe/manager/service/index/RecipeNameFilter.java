@@ -0,0 +1,52 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Membership test for recipe names, so creating a recipe does not need a lookup by name first.
+ * Names are compared exactly, like the unique constraint on the name column.
+ * <p>
+ * Lock free: both directions are concurrent maps, the id to name one lets a removal or rename find the old name.
+ */
+@Component
+public class RecipeNameFilter implements RecipeIndex {
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        String name = recipe.getName();
+        String previous = namesById.put(recipe.getId(), name);
+        if (previous != null && !previous.equals(name)) {
+            idsByName.remove(previous, recipe.getId());
+        }
+        idsByName.put(name, recipe.getId());
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        String name = namesById.remove(recipeId);
+        if (name != null) {
+            idsByName.remove(name, recipeId);
+        }
+    }
+
+    @Override
+    public void clear() {
+        namesById.clear();
+        idsByName.clear();
+    }
+
+    /**
+     * False if no known recipe has this name. True means the name may be taken and the database has to decide,
+     * since a removal is only applied once it commits.
+     */
+    public boolean mightContain(String name) {
+        return idsByName.containsKey(name);
+    }
+}
@@ -0,0 +1,166 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term frequencies of the name, description and instructions of every recipe, for ranking search results with
+ * Okapi BM25. The three fields are tokenized like the instruction index and scored as one document.
+ * <p>
+ * Ranking walks the matched ids and the posting lists of the query terms side by side, all sorted by id, and
+ * keeps the best recipes in a min-heap bounded by the number requested, so no score is stored and the matches
+ * are never sorted as a whole.
+ */
+@Component
+public class RelevanceIndex implements RecipeIndex {
+
+    // the usual defaults, term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private record Scored(long id, double score) {
+    }
+
+    // the heap's head is the weakest of the kept recipes. Equal scores rank newer recipes first
+    private static final Comparator<Scored> WEAKEST_FIRST = Comparator.comparingDouble(Scored::score)
+            .thenComparingLong(Scored::id);
+
+    private final Map<String, TermPostings> postings = new HashMap<>();
+    private final Map<Long, String[]> termsByRecipe = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(RecipeEntity recipe) {
+        List<String> tokens = new ArrayList<>(Tokenizer.tokenize(recipe.getName()));
+        tokens.addAll(Tokenizer.tokenize(recipe.getDescription()));
+        tokens.addAll(Tokenizer.tokenize(recipe.getInstructions()));
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipe.getId());
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new TermPostings()).add(recipe.getId(), frequency));
+            termsByRecipe.put(recipe.getId(), frequencies.keySet().toArray(new String[0]));
+            lengths.put(recipe.getId(), tokens.size());
+            totalLength += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByRecipe.clear();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the matched ids, the most relevant to the query first.
+     */
+    public List<Long> top(Roaring64Bitmap matches, String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        PriorityQueue<Scored> best = new PriorityQueue<>(WEAKEST_FIRST);
+        lock.readLock().lock();
+        try {
+            int recipes = lengths.size();
+            double averageLength = recipes > 0 ? (double) totalLength / recipes : 0;
+            List<TermPostings> lists = terms.stream().map(postings::get).filter(Objects::nonNull).toList();
+            double[] idfs = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int containing = lists.get(i).size();
+                idfs[i] = Math.log(1 + (recipes - containing + 0.5) / (containing + 0.5));
+            }
+
+            int[] positions = new int[lists.size()];
+            LongIterator ids = matches.getLongIterator();
+            while (ids.hasNext()) {
+                long id = ids.next();
+                Integer length = lengths.get(id);
+                if (length == null) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * length / averageLength);
+                double score = 0;
+                for (int i = 0; i < lists.size(); i++) {
+                    TermPostings list = lists.get(i);
+                    int pos = positions[i];
+                    while (pos < list.size() && list.id(pos) < id) {
+                        pos++;
+                    }
+                    positions[i] = pos;
+                    if (pos < list.size() && list.id(pos) == id) {
+                        int frequency = list.frequency(pos);
+                        score += idfs[i] * frequency * (K1 + 1) / (frequency + norm);
+                    }
+                }
+                offer(best, new Scored(id, score), limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().id());
+        }
+        return ranked.reversed();
+    }
+
+    private static void offer(PriorityQueue<Scored> best, Scored candidate, int limit) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (limit > 0 && WEAKEST_FIRST.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private void removeInternal(Long recipeId) {
+        String[] terms = termsByRecipe.remove(recipeId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            TermPostings list = postings.get(term);
+            if (list != null && list.remove(recipeId) && list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths.remove(recipeId);
+    }
+}
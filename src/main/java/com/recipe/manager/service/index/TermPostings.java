@@ -0,0 +1,62 @@
+package com.recipe.manager.service.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted recipe ids of one term together with how often the term occurs in each recipe.
+ * Not thread safe, callers guard it.
+ */
+final class TermPostings {
+
+    private long[] ids = new long[4];
+    private int[] frequencies = new int[4];
+    private int size;
+
+    void add(long id, int frequency) {
+        int pos = size;
+        if (size > 0 && ids[size - 1] >= id) {
+            pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                frequencies[pos] = frequency;
+                return;
+            }
+            pos = -pos - 1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        System.arraycopy(frequencies, pos, frequencies, pos + 1, size - pos);
+        ids[pos] = id;
+        frequencies[pos] = frequency;
+        size++;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        System.arraycopy(frequencies, pos + 1, frequencies, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long id(int pos) {
+        return ids[pos];
+    }
+
+    int frequency(int pos) {
+        return frequencies[pos];
+    }
+}
@@ -0,0 +1,36 @@
+package com.recipe.manager.service.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Splits text into lower-cased tokens of letters and digits. Everything else is a separator.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(text.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,102 @@
+package com.recipe.manager.service.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Character trigrams of short keys, for typo-tolerant lookups. Keys are split into words and every word is padded
+ * with two spaces in front and one behind before cutting it into trigrams, like PostgreSQL's pg_trgm, so short
+ * words and word starts weigh more. Similarity is the Jaccard index of the two trigram sets.
+ * <p>
+ * A lookup only visits the keys sharing at least one trigram with the query, by walking the posting lists of the
+ * query's trigrams and counting hits per key.
+ */
+public class TrigramIndex {
+
+    public record Match(int id, double similarity) {
+    }
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::similarity).reversed()
+            .thenComparingInt(Match::id);
+
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Integer> trigramCounts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the key under the id. Keys are expected normalized and are indexed once per id.
+     */
+    public void add(int id, String key) {
+        Set<String> trigrams = trigrams(key);
+        lock.writeLock().lock();
+        try {
+            if (trigramCounts.putIfAbsent(id, trigrams.size()) != null) {
+                return;
+            }
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new ArrayList<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            trigramCounts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} keys at least {@code minSimilarity} similar to the query, most similar first.
+     */
+    public List<Match> search(String query, double minSimilarity, int limit) {
+        Set<String> queryTrigrams = trigrams(query);
+        List<Match> matches = new ArrayList<>();
+        if (queryTrigrams.isEmpty()) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                List<Integer> ids = postings.get(trigram);
+                if (ids != null) {
+                    ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+                }
+            }
+            shared.forEach((id, common) -> {
+                double similarity = common / (double) (queryTrigrams.size() + trigramCounts.get(id) - common);
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(id, similarity));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(BEST_FIRST);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    static Set<String> trigrams(String key) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : Tokenizer.tokenize(key)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -4,14 +4,22 @@ import com.recipe.manager.data.UnitType;
 import com.recipe.manager.dto.Ingredient;
 import com.recipe.manager.dto.IngredientInput;
 import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.repository.IngredientRow;
+import com.recipe.manager.service.IngredientDictionary;
 import org.springframework.stereotype.Component;
 
 @Component
 public class IngredientMapper {
 
+    private final IngredientDictionary ingredientDictionary;
+
+    public IngredientMapper(IngredientDictionary ingredientDictionary) {
+        this.ingredientDictionary = ingredientDictionary;
+    }
+
     public IngredientEntity map(IngredientInput ingredient) {
         IngredientEntity ingredientEntity = new IngredientEntity();
-        ingredientEntity.setName(ingredient.getName());
+        ingredientEntity.setIngredientName(ingredientDictionary.resolve(ingredient.getName()));
         ingredientEntity.setQuantity(ingredient.getQuantity());
         ingredientEntity.setUnit(UnitType.valueOf(ingredient.getUnit().getValue()));
         return ingredientEntity;
@@ -19,9 +27,17 @@ public class IngredientMapper {
 
     public Ingredient map(IngredientEntity ingredientEntity) {
         Ingredient ingredient = new Ingredient();
-        ingredient.setName(ingredientEntity.getName());
+        ingredient.setName(ingredientDictionary.name(ingredientEntity.getIngredientName()));
         ingredient.setQuantity(ingredientEntity.getQuantity());
         ingredient.setUnit(Ingredient.UnitEnum.fromValue(ingredientEntity.getUnit().name()));
         return ingredient;
     }
+
+    public Ingredient map(IngredientRow row) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName(ingredientDictionary.name(row.nameId()));
+        ingredient.setQuantity(row.quantity());
+        ingredient.setUnit(Ingredient.UnitEnum.fromValue(row.unit().name()));
+        return ingredient;
+    }
 }
@@ -1,14 +1,18 @@
 package com.recipe.manager.service.mapper;
 
 import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.Ingredient;
 import com.recipe.manager.dto.PaginationInfo;
 import com.recipe.manager.dto.Recipe;
 import com.recipe.manager.dto.RecipeListResponse;
 import com.recipe.manager.entity.RecipeEntity;
-import org.springframework.data.domain.Page;
+import com.recipe.manager.repository.RecipeRow;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -42,18 +46,37 @@ public class RecipeMapper {
         recipe.setIngredients(entity.getIngredients().stream()
                 .map(ingredientMapper::map)
                 .collect(Collectors.toList()));
-        recipe.setCreatedAt(OffsetDateTime.ofInstant(entity.getCreatedAt(), OffsetDateTime.now().getOffset()));
+        recipe.setCreatedAt(toOffsetDateTime(entity.getCreatedAt()));
         return recipe;
     }
 
-    public RecipeListResponse map(Page<RecipeEntity> recipePage, int page, int pageSize, long totalCount) {
+    public Recipe toDto(RecipeRow row, List<Ingredient> ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(row.id());
+        recipe.setName(row.name());
+        recipe.setDescription(row.description());
+        recipe.setInstructions(row.instructions());
+        recipe.setIsVegetarian(row.isVegetarian());
+        recipe.setServings(row.serving());
+        recipe.setIngredients(ingredients);
+        recipe.setCreatedAt(toOffsetDateTime(row.createdAt()));
+        return recipe;
+    }
+
+    public RecipeListResponse map(List<Recipe> recipes, Integer page, int pageSize, Long totalCount, boolean totalCountExact) {
         RecipeListResponse response = new RecipeListResponse();
-        response.setData(recipePage.getContent().stream().map(this::toDto).collect(Collectors.toList()));
+        response.setData(recipes);
         PaginationInfo paginationInfo = new PaginationInfo();
         paginationInfo.setPage(page);
         paginationInfo.setPageSize(pageSize);
         paginationInfo.setTotalItems(totalCount);
+        paginationInfo.setTotalItemsExact(totalCount != null ? totalCountExact : null);
         response.setPagination(paginationInfo);
         return response;
     }
+
+    // the offset of the instant itself, without reading the clock for every recipe
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
 }
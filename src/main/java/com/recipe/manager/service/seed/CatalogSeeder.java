@@ -0,0 +1,72 @@
+package com.recipe.manager.service.seed;
+
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.BulkRecipeImportResponse;
+import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.RecipeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the configured datasource with {@code recipe.seed.count} generated recipes on startup, through the bulk
+ * import. Only active with the {@code seed} profile. Runs before the index initializer, and the synchronizer
+ * ignores writes until that load starts, so the indexes are built once over the full catalog. Skipped when the
+ * catalog already has recipes.
+ */
+@Component
+@Profile("seed")
+// after a snapshot restore, which leaves nothing to seed
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CatalogSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSeeder.class);
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final RecipeService recipeService;
+    private final RecipeRepository recipeRepository;
+    private final long count;
+    private final long seed;
+
+    public CatalogSeeder(RecipeService recipeService, RecipeRepository recipeRepository,
+                         @Value("${recipe.seed.count:100000}") long count,
+                         @Value("${recipe.seed.random-seed:42}") long seed) {
+        this.recipeService = recipeService;
+        this.recipeRepository = recipeRepository;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (recipeRepository.count() > 0) {
+            log.info("Catalog is not empty, skipping seeding");
+            return;
+        }
+        log.info("Seeding {} recipes with seed {}", count, seed);
+        long start = System.nanoTime();
+        RecipeGenerator generator = new RecipeGenerator(seed);
+        long created = 0;
+        for (long from = 0; from < count; from += CHUNK_SIZE) {
+            List<CreateRecipeRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (long number = from; number < Math.min(from + CHUNK_SIZE, count); number++) {
+                chunk.add(generator.next(number));
+            }
+            BulkRecipeImportResponse response = recipeService.importRecipes(new BulkRecipeImportRequest(chunk));
+            created += response.getCreated();
+            log.info("Seeded {} of {} recipes", created, count);
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Seeded {} recipes in {} ms ({} recipes/s)", created, millis, created * 1000 / millis);
+    }
+}
@@ -0,0 +1,144 @@
+package com.recipe.manager.service.seed;
+
+import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientInput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic source of realistic recipes: the same seed always produces the same catalog.
+ * <p>
+ * Ingredient names follow a Zipf distribution over a fixed vocabulary, so a few staples appear in most recipes
+ * and a long tail appears rarely. Instructions vary from a sentence to the 5000 character column limit, most
+ * of them short. About a third of the recipes are vegetarian, servings cluster around 2 and 4.
+ */
+public class RecipeGenerator {
+
+    public static final int MAX_INSTRUCTIONS_LENGTH = 5000;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    // ordered by how common they are, the first ones get the highest Zipf weight
+    private static final String[] BASE_INGREDIENTS = {
+            "salt", "olive oil", "onion", "garlic", "butter", "black pepper", "sugar", "flour", "eggs", "water",
+            "milk", "tomato", "lemon", "parsley", "carrot", "chicken", "cheese", "potato", "rice", "cream",
+            "basil", "ginger", "honey", "vinegar", "soy sauce", "celery", "beef", "pasta", "thyme", "paprika",
+            "cumin", "bell pepper", "mushrooms", "spinach", "cinnamon", "coriander", "chili", "yogurt", "bacon",
+            "lime", "rosemary", "oregano", "zucchini", "broccoli", "cabbage", "pork", "salmon", "shrimp", "tofu",
+            "lentils", "chickpeas", "beans", "corn", "peas", "avocado", "cucumber", "lettuce", "apple", "banana",
+            "oats", "almonds", "walnuts", "coconut milk", "parmesan", "mozzarella", "feta", "bread", "tortillas",
+            "noodles", "quinoa", "couscous", "eggplant", "leek", "shallot", "scallions", "mint", "dill", "sage",
+            "nutmeg", "turmeric", "cardamom", "cloves", "vanilla", "chocolate", "cocoa", "maple syrup", "mustard",
+            "mayonnaise", "capers", "olives", "anchovies", "tuna", "cod", "duck", "lamb", "turkey", "sausage",
+            "pumpkin", "sweet potato", "beetroot", "radish", "asparagus", "artichoke", "fennel", "kale"};
+    private static final String[] MODIFIERS = {"", "fresh", "dried", "ground", "smoked", "chopped", "roasted",
+            "frozen", "organic", "grated", "toasted", "pickled"};
+    private static final String[] DISHES = {"Soup", "Salad", "Stew", "Curry", "Pie", "Risotto", "Tacos", "Bowl",
+            "Casserole", "Stir-Fry", "Gratin", "Pasta", "Skillet", "Tart", "Wrap", "Roast"};
+    private static final String[] STYLES = {"Classic", "Rustic", "Spicy", "Creamy", "Quick", "Hearty", "Zesty",
+            "Smoky", "Golden", "Summer", "Winter", "Garden", "Country", "Herbed"};
+    private static final String[] STEP_VERBS = {"Chop", "Dice", "Slice", "Mix", "Whisk", "Stir", "Simmer", "Boil",
+            "Bake", "Roast", "Grill", "Fry", "Saute", "Season", "Toss", "Fold", "Knead", "Marinate", "Steam", "Serve"};
+    private static final String[] STEP_ENDINGS = {"until golden", "for ten minutes", "over medium heat",
+            "in a large bowl", "until tender", "with a pinch of salt", "in the oven", "until smooth",
+            "in a hot pan", "and set aside", "before serving", "until fragrant"};
+    private static final int[] SERVINGS = {1, 2, 2, 2, 3, 4, 4, 4, 4, 5, 6, 6, 8, 10, 12};
+
+    private final Random random;
+    private final String[] vocabulary;
+    private final double[] cumulativeWeights;
+
+    public RecipeGenerator(long seed) {
+        this.random = new Random(seed);
+        this.vocabulary = vocabulary();
+        this.cumulativeWeights = new double[vocabulary.length];
+        double sum = 0;
+        for (int rank = 0; rank < vocabulary.length; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulativeWeights[rank] = sum;
+        }
+        for (int rank = 0; rank < vocabulary.length; rank++) {
+            cumulativeWeights[rank] /= sum;
+        }
+    }
+
+    /**
+     * Builds the recipe with the given sequence number. The number is part of the name, which keeps names unique.
+     */
+    public CreateRecipeRequest next(long number) {
+        CreateRecipeRequest request = new CreateRecipeRequest();
+        List<String> ingredients = ingredientNames(3 + random.nextInt(10));
+        String main = ingredients.getFirst();
+        request.setName(STYLES[random.nextInt(STYLES.length)] + " " + capitalize(main) + " "
+                + DISHES[random.nextInt(DISHES.length)] + " #" + number);
+        request.setDescription("A " + STYLES[random.nextInt(STYLES.length)].toLowerCase() + " dish with " + main + ".");
+        request.setIsVegetarian(random.nextInt(3) == 0);
+        request.setServings(SERVINGS[random.nextInt(SERVINGS.length)]);
+        request.setInstructions(instructions(instructionsLength()));
+        request.setIngredients(ingredients.stream().map(this::ingredient).toList());
+        return request;
+    }
+
+    public String ingredientName() {
+        int rank = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return vocabulary[rank < 0 ? Math.min(-rank - 1, vocabulary.length - 1) : rank];
+    }
+
+    private List<String> ingredientNames(int count) {
+        Set<String> names = new LinkedHashSet<>();
+        // bounded, with a Zipf head a recipe may keep drawing the same few staples
+        for (int attempt = 0; names.size() < count && attempt < count * 4; attempt++) {
+            names.add(ingredientName());
+        }
+        return new ArrayList<>(names);
+    }
+
+    private IngredientInput ingredient(String name) {
+        IngredientInput ingredient = new IngredientInput();
+        ingredient.setName(name);
+        if (random.nextInt(4) == 0) {
+            ingredient.setQuantity(1 + random.nextInt(6));
+            ingredient.setUnit(IngredientInput.UnitEnum.PCS);
+        } else {
+            ingredient.setQuantity(5 * (1 + random.nextInt(100)));
+            ingredient.setUnit(IngredientInput.UnitEnum.GR);
+        }
+        return ingredient;
+    }
+
+    // exponential around 400 characters, a long tail up to the column limit
+    private int instructionsLength() {
+        int length = (int) (-400 * Math.log(1 - random.nextDouble()));
+        return Math.clamp(length, 40, MAX_INSTRUCTIONS_LENGTH);
+    }
+
+    private String instructions(int length) {
+        StringBuilder text = new StringBuilder(length + 64);
+        int step = 1;
+        while (text.length() < length) {
+            text.append(step++).append(". ")
+                    .append(STEP_VERBS[random.nextInt(STEP_VERBS.length)]).append(" the ")
+                    .append(ingredientName()).append(' ')
+                    .append(STEP_ENDINGS[random.nextInt(STEP_ENDINGS.length)]).append(". ");
+        }
+        return text.substring(0, Math.min(text.length(), length)).trim();
+    }
+
+    private static String[] vocabulary() {
+        List<String> names = new ArrayList<>(BASE_INGREDIENTS.length * MODIFIERS.length);
+        for (String modifier : MODIFIERS) {
+            for (String base : BASE_INGREDIENTS) {
+                names.add(modifier.isEmpty() ? base : modifier + " " + base);
+            }
+        }
+        return names.toArray(String[]::new);
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
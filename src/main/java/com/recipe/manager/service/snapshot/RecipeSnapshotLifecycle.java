@@ -0,0 +1,119 @@
+package com.recipe.manager.service.snapshot;
+
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps the in-memory catalog across restarts. Only active with the {@code snapshot} profile.
+ * On startup an empty catalog is restored from {@code recipe.snapshot.path} before the web server takes requests,
+ * so no create can take an id or name the snapshot holds, and before the seeder and the index initializer run.
+ * A new snapshot is written every {@code recipe.snapshot.interval} and on shutdown, once the web server stopped
+ * taking requests, unless nothing changed since the last one.
+ */
+@Component
+@Profile("snapshot")
+public class RecipeSnapshotLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeSnapshotLifecycle.class);
+    // below the web server's phases: started before it takes requests, stopped after its graceful shutdown,
+    // so the last requests are in the snapshot
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final RecipeSnapshotStore snapshotStore;
+    private final RecipeRepository recipeRepository;
+    private final RecipeIndexSynchronizer indexSynchronizer;
+    private final Path path;
+    private volatile boolean running;
+    private long writtenVersion = -1;
+
+    public RecipeSnapshotLifecycle(RecipeSnapshotStore snapshotStore, RecipeRepository recipeRepository,
+                                   RecipeIndexSynchronizer indexSynchronizer,
+                                   @Value("${recipe.snapshot.path:data/recipes.snapshot}") Path path) {
+        this.snapshotStore = snapshotStore;
+        this.recipeRepository = recipeRepository;
+        this.indexSynchronizer = indexSynchronizer;
+        this.path = path;
+    }
+
+    @Override
+    public void start() {
+        try {
+            restore();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+    }
+
+    private void restore() throws IOException {
+        if (!Files.exists(path)) {
+            log.info("No snapshot at {}, starting from the database", path);
+            return;
+        }
+        if (recipeRepository.count() > 0) {
+            log.info("Catalog is not empty, not restoring {}", path);
+            return;
+        }
+        long start = System.nanoTime();
+        long restored = snapshotStore.restore(path);
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Restored {} recipes from {} ({} MB) in {} ms", restored, path, Files.size(path) / (1024 * 1024), millis);
+        synchronized (this) {
+            // the restored catalog is what the file already holds
+            writtenVersion = indexSynchronizer.version();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${recipe.snapshot.interval:PT15M}", fixedDelayString = "${recipe.snapshot.interval:PT15M}")
+    public void writePeriodically() {
+        write();
+    }
+
+    @Override
+    public void stop() {
+        write();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private synchronized void write() {
+        // before the startup load finished the database may not hold the whole catalog yet
+        if (!indexSynchronizer.isReady()) {
+            return;
+        }
+        long version = indexSynchronizer.version();
+        if (version == writtenVersion) {
+            log.debug("Catalog unchanged since the last snapshot");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long written = snapshotStore.write(path);
+            writtenVersion = version;
+            log.info("Wrote {} recipes to {} in {} ms", written, path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write the snapshot to {}", path, e);
+        }
+    }
+}
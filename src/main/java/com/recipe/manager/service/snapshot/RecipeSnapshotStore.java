@@ -0,0 +1,299 @@
+package com.recipe.manager.service.snapshot;
+
+import com.recipe.manager.data.UnitType;
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.IngredientDictionary;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the catalog: ingredient names, then every recipe followed by its ingredients, in id order.
+ * <p>
+ * Writing reads the tables with two plain JDBC cursors in one repeatable-read transaction and merges them by
+ * recipe id, so the file is one consistent, sequential stream. It is written next to the target, synced to disk
+ * and moved over it, and the directory is synced after the move, so a crash never leaves a half-written snapshot
+ * behind.
+ * <p>
+ * Restoring reads the memory-mapped file front to back and inserts the rows with JDBC batches, bypassing
+ * Hibernate and its entity listener. The in-memory indexes are derived data and are not stored: they are
+ * filled from the same decoded recipes, so no second pass over the database is needed before the application
+ * is ready.
+ */
+@Component
+public class RecipeSnapshotStore {
+
+    private static final int MAGIC = 0x52435053; // "RCPS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BATCH_SIZE = 1000;
+    private static final UnitType[] UNITS = UnitType.values();
+
+    private static final String SELECT_NAMES = "select id, name, normalized_name from ingredient_names order by id";
+    private static final String SELECT_RECIPES =
+            "select id, name, description, instructions, is_vegetarian, serving, created_at from recipes order by id";
+    private static final String SELECT_INGREDIENTS =
+            "select recipe_id, id, name_id, quantity, unit, created_at from ingredients order by recipe_id, id";
+    // names may already be there, e.g. written by the dictionary before the restore
+    private static final String MERGE_NAME = "merge into ingredient_names (id, name, normalized_name) key (id) values (?, ?, ?)";
+    private static final String INSERT_RECIPE =
+            "insert into recipes (id, name, description, instructions, is_vegetarian, serving, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_INGREDIENT =
+            "insert into ingredients (id, recipe_id, name_id, quantity, unit, created_at) values (?, ?, ?, ?, ?, ?)";
+    // allocation sizes as in the entities' @SequenceGenerator
+    private static final List<Sequence> SEQUENCES = List.of(
+            new Sequence("recipe_seq", "recipes", 50),
+            new Sequence("ingredient_seq", "ingredients", 200),
+            new Sequence("ingredient_name_seq", "ingredient_names", 50));
+
+    private record Sequence(String name, String table, int allocationSize) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IngredientDictionary ingredientDictionary;
+    private final RecipeIndexSynchronizer indexSynchronizer;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public RecipeSnapshotStore(JdbcTemplate jdbcTemplate, IngredientDictionary ingredientDictionary,
+                               RecipeIndexSynchronizer indexSynchronizer, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ingredientDictionary = ingredientDictionary;
+        this.indexSynchronizer = indexSynchronizer;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        // both cursors have to see the same data
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Writes the current catalog to the path. Returns the number of recipes written.
+     */
+    public long write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Long written;
+        boolean moved = false;
+        try {
+            try (SnapshotOutput out = new SnapshotOutput(temporary)) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                written = snapshotTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        writeNames(connection, out);
+                        return writeRecipes(connection, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                // the rename must not reach the disk before the contents do
+                out.sync();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        syncDirectory(parent);
+        return written != null ? written : 0;
+    }
+
+    // makes the rename itself durable
+    private static void syncDirectory(Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // some platforms, Windows among them, cannot open a directory; they persist the rename on their own
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Inserts the snapshot into an empty catalog and loads the in-memory indexes from it, which are ready
+     * afterwards. Returns the number of recipes restored.
+     */
+    public long restore(Path path) throws IOException {
+        try (SnapshotInput in = new SnapshotInput(path)) {
+            if (in.size() < 2 * Integer.BYTES || in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a recipe snapshot: " + path);
+            }
+
+            Map<Integer, IngredientNameEntity> names = new HashMap<>();
+            List<Object[]> nameRows = new ArrayList<>();
+            while (in.readBoolean()) {
+                IngredientNameEntity name = new IngredientNameEntity();
+                name.setId(in.readInt());
+                name.setName(in.readString());
+                name.setNormalizedName(in.readString());
+                names.put(name.getId(), name);
+                nameRows.add(new Object[]{name.getId(), name.getName(), name.getNormalizedName()});
+            }
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MERGE_NAME, nameRows));
+            ingredientDictionary.reload();
+
+            indexSynchronizer.clear();
+            long restored = 0;
+            List<RecipeEntity> chunk = new ArrayList<>(BATCH_SIZE);
+            while (in.readBoolean()) {
+                chunk.add(readRecipe(in, names));
+                if (chunk.size() == BATCH_SIZE) {
+                    restored += insert(chunk);
+                    chunk.clear();
+                }
+            }
+            restored += insert(chunk);
+            writeTransaction.executeWithoutResult(status -> restartSequences());
+            indexSynchronizer.markReady();
+            return restored;
+        }
+    }
+
+    private void writeNames(Connection connection, SnapshotOutput out) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(); ResultSet names = statement.executeQuery(SELECT_NAMES)) {
+            while (names.next()) {
+                out.writeBoolean(true);
+                out.writeInt(names.getInt(1));
+                out.writeString(names.getString(2));
+                out.writeString(names.getString(3));
+            }
+        }
+        out.writeBoolean(false);
+    }
+
+    private long writeRecipes(Connection connection, SnapshotOutput out) throws SQLException, IOException {
+        long written = 0;
+        try (Statement recipeStatement = connection.createStatement();
+             Statement ingredientStatement = connection.createStatement();
+             ResultSet recipes = recipeStatement.executeQuery(SELECT_RECIPES);
+             ResultSet ingredients = ingredientStatement.executeQuery(SELECT_INGREDIENTS)) {
+            boolean moreIngredients = ingredients.next();
+            while (recipes.next()) {
+                long recipeId = recipes.getLong(1);
+                out.writeBoolean(true);
+                out.writeLong(recipeId);
+                out.writeString(recipes.getString(2));
+                out.writeString(recipes.getString(3));
+                out.writeString(recipes.getString(4));
+                out.writeBoolean(recipes.getBoolean(5));
+                out.writeInt(recipes.getInt(6));
+                out.writeInstant(recipes.getObject(7, Instant.class));
+
+                // both cursors are ordered by recipe id, skip ingredients without a recipe
+                while (moreIngredients && ingredients.getLong(1) < recipeId) {
+                    moreIngredients = ingredients.next();
+                }
+                while (moreIngredients && ingredients.getLong(1) == recipeId) {
+                    out.writeBoolean(true);
+                    out.writeLong(ingredients.getLong(2));
+                    out.writeInt(ingredients.getInt(3));
+                    out.writeInt(ingredients.getInt(4));
+                    out.writeByte(UnitType.valueOf(ingredients.getString(5)).ordinal());
+                    out.writeInstant(ingredients.getObject(6, Instant.class));
+                    moreIngredients = ingredients.next();
+                }
+                out.writeBoolean(false);
+                written++;
+            }
+        }
+        out.writeBoolean(false);
+        return written;
+    }
+
+    private RecipeEntity readRecipe(SnapshotInput in, Map<Integer, IngredientNameEntity> names) throws IOException {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(in.readLong());
+        recipe.setName(in.readString());
+        recipe.setDescription(in.readString());
+        recipe.setInstructions(in.readString());
+        recipe.setVegeterian(in.readBoolean());
+        recipe.setServing(in.readInt());
+        recipe.setCreatedAt(in.readInstant());
+        while (in.readBoolean()) {
+            IngredientEntity ingredient = new IngredientEntity();
+            ingredient.setId(in.readLong());
+            int nameId = in.readInt();
+            IngredientNameEntity name = names.get(nameId);
+            if (name == null) {
+                throw new IOException("Snapshot references unknown ingredient name " + nameId);
+            }
+            ingredient.setIngredientName(name);
+            ingredient.setQuantity(in.readInt());
+            ingredient.setUnit(UNITS[in.readByte()]);
+            ingredient.setCreatedAt(in.readInstant());
+            ingredient.setRecipe(recipe);
+            recipe.getIngredients().add(ingredient);
+        }
+        return recipe;
+    }
+
+    private int insert(List<RecipeEntity> recipes) {
+        if (recipes.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> recipeRows = new ArrayList<>(recipes.size());
+        List<Object[]> ingredientRows = new ArrayList<>();
+        for (RecipeEntity recipe : recipes) {
+            recipeRows.add(new Object[]{recipe.getId(), recipe.getName(), recipe.getDescription(), recipe.getInstructions(),
+                    recipe.getVegeterian(), recipe.getServing(), recipe.getCreatedAt()});
+            for (IngredientEntity ingredient : recipe.getIngredients()) {
+                ingredientRows.add(new Object[]{ingredient.getId(), recipe.getId(), ingredient.getIngredientName().getId(),
+                        ingredient.getQuantity(), ingredient.getUnit().name(), ingredient.getCreatedAt()});
+            }
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RECIPE, recipeRows);
+            jdbcTemplate.batchUpdate(INSERT_INGREDIENT, ingredientRows);
+        });
+        indexSynchronizer.load(recipes);
+        return recipes.size();
+    }
+
+    // Ids were inserted without the sequences. Move them past the restored ids, one allocation block further since
+    // the pooled optimizer hands out the block below the value it reads, but never back: ids already handed out
+    // stay taken.
+    private void restartSequences() {
+        for (Sequence sequence : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + sequence.table(), Long.class);
+            Long current = jdbcTemplate.queryForObject("select next value for " + sequence.name(), Long.class);
+            long next = Math.max(current != null ? current : 0, (maxId != null ? maxId : 0) + sequence.allocationSize() + 1);
+            jdbcTemplate.execute("alter sequence " + sequence.name() + " restart with " + next);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.recipe.manager.service.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Sequential reads of a snapshot written by {@link SnapshotOutput}, straight from a memory-mapped file.
+ * A single mapping cannot exceed 2 GiB, so the file is mapped in windows of up to 1 GiB and a new window is
+ * mapped from the current position whenever the next value does not fit in the rest of the current one.
+ */
+final class SnapshotInput implements AutoCloseable {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer buffer;
+    private long windowStart;
+
+    SnapshotInput(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    byte readByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get();
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    String readString() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Instant readInstant() throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        long seconds = readLong();
+        return Instant.ofEpochSecond(seconds, readInt());
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        long position = windowStart + buffer.position();
+        if (size - position < bytes) {
+            throw new EOFException("Snapshot is truncated at byte " + position);
+        }
+        map(position);
+    }
+
+    private void map(long position) throws IOException {
+        windowStart = position;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.recipe.manager.service.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Big-endian writes of the snapshot format, read back by {@link SnapshotInput}.
+ * Strings are an int byte length followed by UTF-8, -1 for null.
+ */
+final class SnapshotOutput implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+
+    SnapshotOutput(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+        out.writeBoolean(value);
+    }
+
+    void writeByte(int value) throws IOException {
+        out.writeByte(value);
+    }
+
+    void writeInt(int value) throws IOException {
+        out.writeInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        out.writeLong(value);
+    }
+
+    void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    void writeInstant(Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    /**
+     * Flushes the buffer and forces the contents and metadata to the storage device.
+     */
+    void sync() throws IOException {
+        out.flush();
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -2,38 +2,72 @@ package com.recipe.manager.entrypoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.dto.BulkRecipeDeleteRequest;
+import com.recipe.manager.dto.BulkRecipeDeleteResponse;
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.BulkRecipeImportResponse;
+import com.recipe.manager.dto.BulkRecipeImportResult;
+import com.recipe.manager.dto.CookableRecipe;
+import com.recipe.manager.dto.CookableRecipesResponse;
 import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientFacet;
 import com.recipe.manager.dto.IngredientInput;
+import com.recipe.manager.dto.PantryRequest;
 import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeFacetsResponse;
 import com.recipe.manager.dto.RecipeListResponse;
 import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.dto.ServingsFacet;
+import com.recipe.manager.dto.SimilarRecipe;
+import com.recipe.manager.dto.SimilarRecipesResponse;
+import com.recipe.manager.dto.Suggestion;
+import com.recipe.manager.dto.SuggestionsResponse;
+import com.recipe.manager.entrypoint.exception.ApiErrorCode;
+import com.recipe.manager.entrypoint.exception.ApiException;
+import com.recipe.manager.entrypoint.exception.RecipeDuplicateException;
+import com.recipe.manager.service.RecipeExporter;
 import com.recipe.manager.service.RecipeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RecipeController.class)
 @ContextConfiguration(classes = {RecipeManagerLauncher.class})
+@Import({RecipeMetrics.class, SimpleMeterRegistry.class})
 @ActiveProfiles("test")
 class RecipeControllerTest {
 
@@ -43,9 +77,15 @@ class RecipeControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockitoBean
     private RecipeService recipeService;
 
+    @MockitoBean
+    private RecipeExporter recipeExporter;
+
     private CreateRecipeRequest validCreateRequest;
 
     @BeforeEach
@@ -84,6 +124,19 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.name", is("Test Recipe")));
     }
 
+    @Test
+    void addRecipe_shouldCountDuplicate() throws Exception {
+        when(recipeService.addRecipe(any(CreateRecipeRequest.class))).thenThrow(new RecipeDuplicateException("Recipe already exists"));
+        double before = meterRegistry.counter("recipe.errors", "reason", "duplicate").count();
+
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateRequest)))
+                .andExpect(status().isConflict());
+
+        assertEquals(before + 1, meterRegistry.counter("recipe.errors", "reason", "duplicate").count());
+    }
+
     @Test
     void addRecipe_shouldReturnBadRequest_whenNameIsMissing() throws Exception {
         validCreateRequest.setName(null);
@@ -207,6 +260,20 @@ class RecipeControllerTest {
         ));
     }
 
+    @Test
+    void searchRecipes_shouldBeTimedByFilterShape() throws Exception {
+        when(recipeService.getRecipes(any(RecipeSearchRequest.class))).thenReturn(new RecipeListResponse());
+
+        mockMvc.perform(post("/recipes/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"servings\": 4, \"excludeIngredients\": [\"nuts\"], \"orderBy\": \"name\", \"page\": 3}"))
+                .andExpect(status().isOk());
+
+        assertNotNull(meterRegistry.find("recipe.search")
+                .tags("filters", "servings+exclude", "orderBy", "name", "direction", "DESC", "depth", "2-10")
+                .timer());
+    }
+
     @Test
     void searchRecipes_shouldReturnBadRequest_whenPageIsZero() throws Exception {
         String invalidJson = "{\"page\": 0}";
@@ -250,4 +317,165 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.field", is("instruction")))
                 .andExpect(jsonPath("$.message", containsString("size must be between 5 and 255")));
     }
+
+    // --- Bulk Import Tests ---
+
+    @Test
+    void importRecipes_happyPath() throws Exception {
+        BulkRecipeImportResult result = new BulkRecipeImportResult();
+        result.setIndex(0);
+        result.setName("Test Recipe");
+        result.setStatus(BulkRecipeImportResult.StatusEnum.CREATED);
+        result.setId(1L);
+        BulkRecipeImportResponse response = new BulkRecipeImportResponse();
+        response.setCreated(1);
+        response.setSkipped(0);
+        response.setDurationMillis(5L);
+        response.setRecipesPerSecond(200.0);
+        response.setResults(List.of(result));
+
+        when(recipeService.importRecipes(any(BulkRecipeImportRequest.class))).thenReturn(response);
+
+        BulkRecipeImportRequest request = new BulkRecipeImportRequest();
+        request.setRecipes(List.of(validCreateRequest));
+        mockMvc.perform(post("/recipes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")));
+    }
+
+    @Test
+    void deleteRecipes_byFilter() throws Exception {
+        BulkRecipeDeleteResponse response = new BulkRecipeDeleteResponse();
+        response.setDeleted(1500L);
+        response.setDurationMillis(420L);
+
+        when(recipeService.deleteRecipes(any(BulkRecipeDeleteRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/recipes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"includeIngredients\": [\"Pesto\"]}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(1500)));
+    }
+
+    // --- Facet Tests ---
+
+    @Test
+    void getRecipeFacets_happyPath() throws Exception {
+        RecipeFacetsResponse response = new RecipeFacetsResponse();
+        response.setTotalItems(3L);
+        response.setTotalItemsExact(true);
+        response.setVegetarian(3L);
+        response.setNonVegetarian(0L);
+        response.setServings(List.of(new ServingsFacet().servings(2).count(3L)));
+        response.setIngredients(List.of(new IngredientFacet().name("Carrot").count(2L)));
+
+        when(recipeService.getFacets(any(RecipeSearchRequest.class), eq(5))).thenReturn(response);
+
+        mockMvc.perform(post("/recipes/facets?top=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isVegetarian\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vegetarian", is(3)))
+                .andExpect(jsonPath("$.servings[0].servings", is(2)))
+                .andExpect(jsonPath("$.ingredients[0].name", is("Carrot")));
+    }
+
+    @Test
+    void getRecipeFacets_whileIndexLoads() throws Exception {
+        when(recipeService.getFacets(any(RecipeSearchRequest.class), any()))
+                .thenThrow(new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading", ApiErrorCode.ServiceUnavailable));
+
+        mockMvc.perform(post("/recipes/facets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // --- Pantry Tests ---
+
+    @Test
+    void findCookableRecipes_happyPath() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setId(7L);
+        recipe.setName("Spaghetti Carbonara");
+        CookableRecipesResponse response = new CookableRecipesResponse();
+        response.setTotalItems(1L);
+        response.setData(List.of(new CookableRecipe().recipe(recipe).missingIngredients(List.of("pancetta"))));
+
+        when(recipeService.findCookable(any(PantryRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/recipes/cookable")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ingredients\": [{\"name\": \"Pasta\", \"quantity\": 500, \"unit\": \"gr\"}, {\"name\": \"Eggs\"}], \"maxMissing\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems", is(1)))
+                .andExpect(jsonPath("$.data[0].recipe.name", is("Spaghetti Carbonara")))
+                .andExpect(jsonPath("$.data[0].missingIngredients[0]", is("pancetta")));
+    }
+
+    @Test
+    void findCookableRecipes_shouldReturnBadRequest_whenTooManyMayBeMissing() throws Exception {
+        mockMvc.perform(post("/recipes/cookable")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ingredients\": [{\"name\": \"Eggs\"}], \"maxMissing\": 6}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- Similar Recipe Tests ---
+
+    @Test
+    void getSimilarRecipes_happyPath() throws Exception {
+        Recipe recipe = new Recipe();
+        recipe.setId(8L);
+        recipe.setName("Pesto Pasta");
+        SimilarRecipesResponse response = new SimilarRecipesResponse();
+        response.setData(List.of(new SimilarRecipe().recipe(recipe).similarity(0.5)));
+
+        when(recipeService.getSimilar(eq(7L), eq(3))).thenReturn(response);
+
+        mockMvc.perform(get("/recipes/7/similar?limit=3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].recipe.name", is("Pesto Pasta")))
+                .andExpect(jsonPath("$.data[0].similarity", is(0.5)));
+    }
+
+    // --- Autocomplete Tests ---
+
+    @Test
+    void autocompleteNames_happyPath() throws Exception {
+        SuggestionsResponse response = new SuggestionsResponse();
+        response.setData(List.of(new Suggestion().text("Tomatoes").type(Suggestion.TypeEnum.INGREDIENT).weight(42)));
+
+        when(recipeService.autocomplete(eq("tom"), eq("ingredient"), eq(5))).thenReturn(response);
+
+        mockMvc.perform(get("/recipes/autocomplete?prefix=tom&type=ingredient&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].text", is("Tomatoes")))
+                .andExpect(jsonPath("$.data[0].type", is("ingredient")))
+                .andExpect(jsonPath("$.data[0].weight", is(42)));
+    }
+
+    // --- Export Tests ---
+
+    @Test
+    void exportRecipes_streamsNdjson() throws Exception {
+        when(recipeExporter.export(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/recipes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
 }
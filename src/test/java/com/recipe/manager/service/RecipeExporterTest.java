@@ -0,0 +1,100 @@
+package com.recipe.manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.data.UnitType;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.repository.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = RecipeManagerLauncher.class)
+@Transactional
+@ActiveProfiles("test")
+class RecipeExporterTest {
+
+    private static final int RECIPES = 250;
+
+    @Autowired
+    private RecipeExporter recipeExporter;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository.deleteAll();
+        List<RecipeEntity> recipes = new ArrayList<>();
+        for (int i = 0; i < RECIPES; i++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setName("Recipe " + i);
+            recipe.setDescription("Description " + i);
+            recipe.setVegeterian(i % 2 == 0);
+            recipe.setServing(1 + i % 6);
+            recipe.setInstructions("Instructions for recipe " + i);
+            IngredientEntity ingredient = new IngredientEntity();
+            ingredient.setIngredientName(ingredientDictionary.resolve("ingredient " + i));
+            ingredient.setQuantity(i);
+            ingredient.setUnit(UnitType.gr);
+            ingredient.setRecipe(recipe);
+            recipe.setIngredients(new ArrayList<>(List.of(ingredient)));
+            recipes.add(recipe);
+        }
+        recipeRepository.saveAllAndFlush(recipes);
+        entityManager.clear();
+    }
+
+    @Test
+    void export_writesOneLinePerRecipeInIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(RECIPES, recipeExporter.export(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(RECIPES, lines.length);
+        long previousId = Long.MIN_VALUE;
+        for (String line : lines) {
+            Recipe recipe = objectMapper.readValue(line, Recipe.class);
+            assertTrue(recipe.getId() > previousId);
+            assertEquals(1, recipe.getIngredients().size());
+            previousId = recipe.getId();
+        }
+    }
+
+    @Test
+    void export_loadsIngredientsPerChunkNotPerRecipe() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        recipeExporter.export(new ByteArrayOutputStream());
+
+        // one cursor query plus one ingredient batch per chunk of 100
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,33 +1,71 @@
 package com.recipe.manager.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.config.CacheConfiguration;
 import com.recipe.manager.data.UnitType;
+import com.recipe.manager.dto.BulkRecipeDeleteRequest;
+import com.recipe.manager.dto.BulkRecipeDeleteResponse;
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.BulkRecipeImportResponse;
+import com.recipe.manager.dto.BulkRecipeImportResult;
+import com.recipe.manager.dto.CookableRecipe;
+import com.recipe.manager.dto.CookableRecipesResponse;
 import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.Ingredient;
+import com.recipe.manager.dto.IngredientFacet;
 import com.recipe.manager.dto.IngredientInput;
+import com.recipe.manager.dto.PantryItem;
+import com.recipe.manager.dto.PantryRequest;
 import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeFacetsResponse;
 import com.recipe.manager.dto.RecipeListResponse;
 import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.dto.ServingsFacet;
+import com.recipe.manager.dto.SimilarRecipe;
+import com.recipe.manager.dto.SimilarRecipesResponse;
+import com.recipe.manager.dto.Suggestion;
+import com.recipe.manager.dto.SuggestionsResponse;
 import com.recipe.manager.entity.IngredientEntity;
 import com.recipe.manager.entity.RecipeEntity;
 import com.recipe.manager.entrypoint.exception.RecipeDuplicateException;
 import com.recipe.manager.entrypoint.exception.RecipeNotFoundException;
+import com.recipe.manager.entrypoint.exception.ApiException;
 import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.cache.CachedRecipe;
+import com.recipe.manager.service.cache.RecipeJsonCache;
+import com.recipe.manager.service.index.AutocompleteIndex;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import com.recipe.manager.service.index.RecipeNameFilter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -42,6 +80,30 @@ class RecipeServiceTest {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RecipeIndexSynchronizer indexSynchronizer;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private RecipeNameFilter nameFilter;
+
+    @Autowired
+    private RecipeJsonCache recipeJsonCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ScheduledTaskHolder scheduledTasks;
+
     @BeforeEach
     void setUp() {
         recipeRepository.deleteAll();
@@ -69,7 +131,7 @@ class RecipeServiceTest {
         List<IngredientEntity> ingredients = Arrays.stream(ingredientNames)
                 .map(ingredientName -> {
                     IngredientEntity ingredient = new IngredientEntity();
-                    ingredient.setName(ingredientName);
+                    ingredient.setIngredientName(ingredientDictionary.resolve(ingredientName));
                     ingredient.setRecipe(recipe);
                     ingredient.setQuantity(100);
                     ingredient.setUnit(UnitType.gr);
@@ -78,7 +140,7 @@ class RecipeServiceTest {
                 .collect(Collectors.toList());
 
         recipe.setIngredients(ingredients);
-        recipeRepository.save(recipe);
+        recipeRepository.saveAndFlush(recipe);
     }
 
     @Test
@@ -107,6 +169,44 @@ class RecipeServiceTest {
     }
 
 
+    @Test
+    void addRecipe_shouldTranslateUniqueViolation_whenNameFilterMissesName() {
+        // Given a recipe the name filter has not seen yet, as if another instance had just inserted it
+        RecipeEntity existing = recipeRepository.findByName("Spaghetti Carbonara").orElseThrow();
+        nameFilter.remove(existing.getId());
+        assertFalse(nameFilter.mightContain("Spaghetti Carbonara"));
+
+        // When the same name is created, Then the unique constraint violation surfaces as a duplicate
+        RecipeDuplicateException exception = assertThrows(RecipeDuplicateException.class,
+                () -> recipeService.addRecipe(createRequest("Spaghetti Carbonara")));
+        assertEquals("Recipe already exists", exception.getMessage());
+    }
+
+    @Test
+    void addRecipe_newNameDoesNotQueryByName() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        recipeService.addRecipe(createRequest("Shakshuka"));
+
+        assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    private CreateRecipeRequest createRequest(String name) {
+        CreateRecipeRequest request = new CreateRecipeRequest();
+        request.setName(name);
+        request.setDescription("Some description.");
+        request.setServings(2);
+        request.setIsVegetarian(true);
+        request.setInstructions("Some instructions.");
+        IngredientInput ingredient = new IngredientInput();
+        ingredient.setName("eggs");
+        ingredient.setQuantity(4);
+        ingredient.setUnit(IngredientInput.UnitEnum.PCS);
+        request.setIngredients(Collections.singletonList(ingredient));
+        return request;
+    }
+
     @Test
     void testGetRecipes_NoFilters() {
         RecipeSearchRequest filter = new RecipeSearchRequest();
@@ -216,6 +316,36 @@ class RecipeServiceTest {
         assertEquals("Vegetable Stir-Fry", response.getData().getFirst().getName());
     }
 
+    @Test
+    void testGetRecipes_InstructionMatchesWholeTokensInDatabaseFallback() {
+        createRecipe("Tomato Soup", "A warming soup.", true, 4, "Simmer tomatoes, then blend!", "tomatoes", "basil");
+        List<String> queries = List.of("tomat", "TOMATOES blend", "blend, tomatoes", "!!!", "wok", "pasta eggs");
+
+        Map<String, List<Long>> indexed = new HashMap<>();
+        for (String query : queries) {
+            indexed.put(query, instructionMatchIds(query));
+        }
+        assertEquals(List.of(), indexed.get("tomat"));
+        assertEquals(1, indexed.get("TOMATOES blend").size());
+        assertEquals(11, indexed.get("!!!").size());
+
+        indexSynchronizer.clear();
+        try {
+            for (String query : queries) {
+                assertEquals(indexed.get(query), instructionMatchIds(query), query);
+            }
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    private List<Long> instructionMatchIds(String instruction) {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setInstruction(instruction);
+        filter.setPageSize(100);
+        return recipeService.getRecipes(filter).getData().stream().map(Recipe::getId).sorted().toList();
+    }
+
     @Test
     void testGetRecipes_ComplexFilter() {
         RecipeSearchRequest filter = new RecipeSearchRequest();
@@ -227,6 +357,630 @@ class RecipeServiceTest {
         assertEquals("Mushroom Risotto", response.getData().getFirst().getName());
     }
 
+    @Test
+    void testGetRecipes_OrderByServingsWithPaging() {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIsVegetarian(false);
+        filter.setOrderBy(RecipeSearchRequest.OrderByEnum.SERVINGS);
+        filter.setDirection(RecipeSearchRequest.DirectionEnum.ASC);
+        filter.setPage(2);
+        filter.setPageSize(4);
+        RecipeListResponse response = recipeService.getRecipes(filter);
+        assertEquals(6, response.getPagination().getTotalItems());
+        assertEquals(2, response.getData().size());
+        assertTrue(response.getData().stream().allMatch(r -> r.getServings() == 4));
+    }
+
+    @Test
+    void testGetRecipes_StatementCountDoesNotDependOnPageSize() {
+        entityManager.flush();
+        entityManager.clear();
+        long smallPageStatements = countSearchStatements(2);
+
+        entityManager.clear();
+        long fullPageStatements = countSearchStatements(10);
+
+        assertEquals(smallPageStatements, fullPageStatements);
+        assertTrue(fullPageStatements <= 2);
+    }
+
+    @Test
+    void testGetRecipes_ReadsRowsWithoutLoadingEntities() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RecipeListResponse response = recipeService.getRecipes(new RecipeSearchRequest().includeIngredients(List.of("carrot")));
+
+        assertEquals(List.of("Lentil Soup", "Vegetable Stir-Fry"), response.getData().stream().map(Recipe::getName).sorted().toList());
+        assertEquals(List.of("lentils", "carrot", "celery"), response.getData().stream()
+                .filter(recipe -> recipe.getName().equals("Lentil Soup"))
+                .flatMap(recipe -> recipe.getIngredients().stream().map(Ingredient::getName))
+                .toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void testGetRecipes_CachedRecipesAreNotReadAgain() {
+        RecipeListResponse first = recipeService.getRecipes(new RecipeSearchRequest().includeIngredients(List.of("carrot")));
+        List<Long> ids = first.getData().stream().map(Recipe::getId).toList();
+        // this test's recipes are uncommitted, reading them must not cache them
+        assertTrue(recipeJsonCache.getAll(ids).isEmpty());
+
+        List<CachedRecipe> cached = first.getData().stream().map(recipeJsonCache::put).toList();
+        cacheManager.getCache(CacheConfiguration.RECIPE_SEARCH_CACHE).clear();
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RecipeListResponse second = recipeService.getRecipes(new RecipeSearchRequest().includeIngredients(List.of("carrot")));
+
+        assertEquals(2, second.getData().size());
+        assertSame(cached.get(0), second.getData().get(0));
+        assertSame(cached.get(1), second.getData().get(1));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private long countSearchStatements(int pageSize) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setPageSize(pageSize);
+        RecipeListResponse response = recipeService.getRecipes(filter);
+        assertEquals(pageSize, response.getData().size());
+        assertTrue(response.getData().stream().allMatch(r -> r.getIngredients().size() == 3));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    // relevance is paged by number only
+    private static final List<RecipeSearchRequest.OrderByEnum> CURSOR_ORDERS = Arrays.stream(RecipeSearchRequest.OrderByEnum.values())
+            .filter(orderBy -> orderBy != RecipeSearchRequest.OrderByEnum.RELEVANCE)
+            .toList();
+
+    @Test
+    void testGetRecipes_CursorWalksSameOrderAsPages() {
+        for (RecipeSearchRequest.OrderByEnum orderBy : CURSOR_ORDERS) {
+            for (RecipeSearchRequest.DirectionEnum direction : RecipeSearchRequest.DirectionEnum.values()) {
+                assertEquals(namesByPage(orderBy, direction), namesByCursor(orderBy, direction), orderBy + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void testGetRecipes_CursorWalksSameOrderAsPagesInDatabaseFallback() {
+        indexSynchronizer.clear();
+        try {
+            for (RecipeSearchRequest.OrderByEnum orderBy : CURSOR_ORDERS) {
+                for (RecipeSearchRequest.DirectionEnum direction : RecipeSearchRequest.DirectionEnum.values()) {
+                    assertEquals(namesByPage(orderBy, direction), namesByCursor(orderBy, direction), orderBy + " " + direction);
+                }
+            }
+        } finally {
+            // every recipe of this test is rolled back, so an empty index matches the database again
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_IngredientNamesAreMatchedNormalized() {
+        createRecipe("Carrot Cake", "A sweet and moist cake.", true, 8, "Bake the batter for 40 minutes.", " CARROT ", "flour");
+        assertEquals(ingredientDictionary.resolve("carrot").getId(), ingredientDictionary.resolve(" Carrot").getId());
+
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIncludeIngredients(List.of("Carrot "));
+        filter.setExcludeIngredients(List.of("celery"));
+        filter.setOrderBy(RecipeSearchRequest.OrderByEnum.NAME);
+        filter.setDirection(RecipeSearchRequest.DirectionEnum.ASC);
+        List<String> expected = List.of("Carrot Cake", "Vegetable Stir-Fry");
+        assertEquals(expected, recipeService.getRecipes(filter).getData().stream().map(Recipe::getName).toList());
+
+        RecipeSearchRequest unknown = new RecipeSearchRequest();
+        unknown.setIncludeIngredients(List.of("unobtainium"));
+        assertTrue(recipeService.getRecipes(unknown).getData().isEmpty());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(expected, recipeService.getRecipes(filter).getData().stream().map(Recipe::getName).toList());
+            assertTrue(recipeService.getRecipes(unknown).getData().isEmpty());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_FuzzyIngredientMatchToleratesTypos() {
+        createRecipe("Tomato Soup", "A warming soup.", true, 4, "Simmer tomatoes and blend.", "tomatoes", "basil");
+
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIncludeIngredients(List.of("Tomatos"));
+        filter.setOrderBy(RecipeSearchRequest.OrderByEnum.NAME);
+        filter.setDirection(RecipeSearchRequest.DirectionEnum.ASC);
+        assertTrue(recipeService.getRecipes(filter).getData().isEmpty());
+
+        filter.setIngredientMatch(RecipeSearchRequest.IngredientMatchEnum.FUZZY);
+        List<String> expected = List.of("Chicken Salad", "Tomato Soup");
+        assertEquals(expected, recipeService.getRecipes(filter).getData().stream().map(Recipe::getName).toList());
+
+        RecipeSearchRequest exclude = new RecipeSearchRequest();
+        exclude.setIncludeIngredients(List.of("carrott"));
+        exclude.setExcludeIngredients(List.of("celeri"));
+        exclude.setIngredientMatch(RecipeSearchRequest.IngredientMatchEnum.FUZZY);
+        assertEquals(List.of("Vegetable Stir-Fry"), recipeService.getRecipes(exclude).getData().stream().map(Recipe::getName).toList());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(expected, recipeService.getRecipes(filter).getData().stream().map(Recipe::getName).toList());
+            assertEquals(List.of("Vegetable Stir-Fry"), recipeService.getRecipes(exclude).getData().stream().map(Recipe::getName).toList());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_OrderByRelevanceRanksBestMatchFirst() {
+        createRecipe("Chicken Stock", "Chicken bones simmered for hours.", false, 8, "Cover chicken bones with water and simmer.", "chicken", "water");
+
+        RecipeSearchRequest filter = new RecipeSearchRequest()
+                .instruction("chicken")
+                .orderBy(RecipeSearchRequest.OrderByEnum.RELEVANCE)
+                .pageSize(2);
+        RecipeListResponse first = recipeService.getRecipes(filter);
+        assertEquals(List.of("Chicken Stock", "Chicken Salad"), first.getData().stream().map(Recipe::getName).toList());
+        assertEquals(3, first.getPagination().getTotalItems());
+        assertNull(first.getNextCursor());
+
+        RecipeListResponse second = recipeService.getRecipes(filter.page(2));
+        assertEquals(List.of("Chicken Curry"), second.getData().stream().map(Recipe::getName).toList());
+        assertTrue(recipeService.getRecipes(filter.page(3)).getData().isEmpty());
+    }
+
+    @Test
+    void testGetRecipes_OrderByRelevanceNeedsKeywordsAndIndex() {
+        RecipeSearchRequest withoutKeywords = new RecipeSearchRequest().orderBy(RecipeSearchRequest.OrderByEnum.RELEVANCE);
+        assertEquals(HttpStatus.BAD_REQUEST,
+                assertThrows(ApiException.class, () -> recipeService.getRecipes(withoutKeywords)).getHttpStatus());
+
+        indexSynchronizer.clear();
+        try {
+            RecipeSearchRequest filter = new RecipeSearchRequest().instruction("chicken").orderBy(RecipeSearchRequest.OrderByEnum.RELEVANCE);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    assertThrows(ApiException.class, () -> recipeService.getRecipes(filter)).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_InvalidCursor() {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setCursor("not-a-cursor");
+        ApiException exception = assertThrows(ApiException.class, () -> recipeService.getRecipes(filter));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void testGetRecipes_CountNoneOnlyReportsWhetherThereIsANextPage() {
+        RecipeListResponse indexed = recipeService.getRecipes(new RecipeSearchRequest().pageSize(3).count(RecipeSearchRequest.CountEnum.NONE));
+        indexSynchronizer.clear();
+        try {
+            entityManager.clear();
+            RecipeListResponse fallback = recipeService.getRecipes(new RecipeSearchRequest().pageSize(3).count(RecipeSearchRequest.CountEnum.NONE));
+            for (RecipeListResponse response : List.of(indexed, fallback)) {
+                assertEquals(3, response.getData().size());
+                assertNull(response.getPagination().getTotalItems());
+                assertNull(response.getPagination().getTotalItemsExact());
+                assertNotNull(response.getNextCursor());
+            }
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_CountIsOnlyExactWhenItCannotIncludeUncommittedRecipes() {
+        // every recipe of this test is still uncommitted, the index counts them anyway
+        RecipeListResponse indexed = recipeService.getRecipes(new RecipeSearchRequest().count(RecipeSearchRequest.CountEnum.ESTIMATE));
+        assertEquals(10, indexed.getPagination().getTotalItems());
+        assertFalse(indexed.getPagination().getTotalItemsExact());
+
+        indexSynchronizer.clear();
+        try {
+            RecipeListResponse counted = recipeService.getRecipes(new RecipeSearchRequest());
+            assertEquals(10, counted.getPagination().getTotalItems());
+            assertTrue(counted.getPagination().getTotalItemsExact());
+
+            RecipeListResponse estimated = recipeService.getRecipes(new RecipeSearchRequest().count(RecipeSearchRequest.CountEnum.ESTIMATE));
+            assertNull(estimated.getPagination().getTotalItems());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetRecipes_CountNoneSkipsCountQueryInDatabaseFallback() {
+        entityManager.flush();
+        indexSynchronizer.clear();
+        try {
+            Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+            entityManager.clear();
+            statistics.clear();
+            recipeService.getRecipes(new RecipeSearchRequest().pageSize(3));
+            long exactStatements = statistics.getPrepareStatementCount();
+
+            entityManager.clear();
+            statistics.clear();
+            recipeService.getRecipes(new RecipeSearchRequest().pageSize(3).count(RecipeSearchRequest.CountEnum.NONE));
+            assertEquals(exactStatements - 1, statistics.getPrepareStatementCount());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    private List<String> namesByPage(RecipeSearchRequest.OrderByEnum orderBy, RecipeSearchRequest.DirectionEnum direction) {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setOrderBy(orderBy);
+        filter.setDirection(direction);
+        RecipeListResponse response = recipeService.getRecipes(filter);
+        assertEquals(10, response.getPagination().getTotalItems());
+        assertNull(response.getNextCursor());
+        return response.getData().stream().map(Recipe::getName).toList();
+    }
+
+    private List<String> namesByCursor(RecipeSearchRequest.OrderByEnum orderBy, RecipeSearchRequest.DirectionEnum direction) {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setOrderBy(orderBy);
+        filter.setDirection(direction);
+        filter.setPageSize(3);
+        List<String> names = new ArrayList<>();
+        RecipeListResponse response = recipeService.getRecipes(filter);
+        names.addAll(response.getData().stream().map(Recipe::getName).toList());
+        while (response.getNextCursor() != null) {
+            RecipeSearchRequest next = new RecipeSearchRequest();
+            next.setPageSize(3);
+            next.setCursor(response.getNextCursor());
+            response = recipeService.getRecipes(next);
+            assertNull(response.getPagination().getTotalItems());
+            assertNull(response.getPagination().getPage());
+            names.addAll(response.getData().stream().map(Recipe::getName).toList());
+        }
+        return names;
+    }
+
+    @Test
+    void testGetRecipes_RepeatedSearchIsServedFromCacheUntilNextWrite() {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIsVegetarian(true);
+        filter.setIncludeIngredients(Arrays.asList("Carrot", "broccoli"));
+        RecipeListResponse first = recipeService.getRecipes(filter);
+        assertEquals(2, first.getData().size());
+
+        CacheStats before = searchCacheStats();
+        RecipeSearchRequest sameSearch = new RecipeSearchRequest();
+        sameSearch.setIsVegetarian(true);
+        sameSearch.setIncludeIngredients(Arrays.asList("BROCCOLI", "carrot", "carrot"));
+        assertEquals(first, recipeService.getRecipes(sameSearch));
+        assertEquals(before.hitCount() + 1, searchCacheStats().hitCount());
+
+        createRecipe("Carrot Cake", "A sweet and moist cake.", true, 8, "Bake the batter for 40 minutes.", "carrot", "flour", "sugar");
+
+        RecipeListResponse afterWrite = recipeService.getRecipes(sameSearch);
+        assertEquals(3, afterWrite.getData().size());
+        assertEquals(before.missCount() + 1, searchCacheStats().missCount());
+    }
+
+    private CacheStats searchCacheStats() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfiguration.RECIPE_SEARCH_CACHE);
+        assertNotNull(cache);
+        return cache.getNativeCache().stats();
+    }
+
+    @Test
+    void testImportRecipes_ReportsResultPerRecipe() {
+        BulkRecipeImportRequest request = new BulkRecipeImportRequest();
+        request.setRecipes(List.of(
+                importedRecipe("Carrot Cake", "carrot", "flour"),
+                importedRecipe("Chicken Curry", "chicken"),
+                importedRecipe("Carrot Cake", "carrot"),
+                importedRecipe("Empty Bowl"),
+                importedRecipe("Onion Tart", "onion", "pastry")));
+
+        BulkRecipeImportResponse response = recipeService.importRecipes(request);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(3, response.getSkipped());
+        assertEquals(List.of(BulkRecipeImportResult.StatusEnum.CREATED, BulkRecipeImportResult.StatusEnum.DUPLICATE,
+                        BulkRecipeImportResult.StatusEnum.DUPLICATE, BulkRecipeImportResult.StatusEnum.INVALID,
+                        BulkRecipeImportResult.StatusEnum.CREATED),
+                response.getResults().stream().map(BulkRecipeImportResult::getStatus).toList());
+        assertNotNull(response.getResults().getFirst().getId());
+        assertNull(response.getResults().get(1).getId());
+
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIncludeIngredients(List.of("pastry"));
+        assertEquals(List.of("Onion Tart"), recipeService.getRecipes(filter).getData().stream().map(Recipe::getName).toList());
+        assertEquals(12, recipeRepository.count());
+    }
+
+    @Test
+    void testImportRecipes_EmptyRequest() {
+        BulkRecipeImportRequest request = new BulkRecipeImportRequest();
+        ApiException exception = assertThrows(ApiException.class, () -> recipeService.importRecipes(request));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+    }
+
+    private CreateRecipeRequest importedRecipe(String name, String... ingredientNames) {
+        CreateRecipeRequest request = new CreateRecipeRequest();
+        request.setName(name);
+        request.setDescription("Imported recipe.");
+        request.setServings(2);
+        request.setIsVegetarian(true);
+        request.setInstructions("Mix and bake.");
+        request.setIngredients(Arrays.stream(ingredientNames).map(ingredientName -> {
+            IngredientInput ingredient = new IngredientInput();
+            ingredient.setName(ingredientName);
+            ingredient.setQuantity(1);
+            ingredient.setUnit(IngredientInput.UnitEnum.PCS);
+            return ingredient;
+        }).collect(Collectors.toList()));
+        return request;
+    }
+
+    @Test
+    void testDeleteRecipes_ByIds() {
+        Long carbonara = recipeRepository.findByName("Spaghetti Carbonara").orElseThrow().getId();
+        Long tacos = recipeRepository.findByName("Beef Tacos").orElseThrow().getId();
+        BulkRecipeDeleteRequest request = new BulkRecipeDeleteRequest();
+        request.setIds(List.of(carbonara, tacos, carbonara, -1L));
+
+        BulkRecipeDeleteResponse response = recipeService.deleteRecipes(request);
+
+        assertEquals(2, response.getDeleted());
+        assertEquals(8, recipeRepository.count());
+        assertFalse(recipeRepository.existsById(carbonara));
+        assertFalse(recipeRepository.existsById(tacos));
+        assertEquals(24L, countIngredients());
+    }
+
+    @Test
+    void testDeleteRecipes_ByFilter() {
+        assertDeletedByFilter();
+    }
+
+    @Test
+    void testDeleteRecipes_ByFilterInDatabaseFallback() {
+        indexSynchronizer.clear();
+        try {
+            assertDeletedByFilter();
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    private void assertDeletedByFilter() {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setIsVegetarian(true);
+        filter.setIncludeIngredients(List.of("carrot", "pasta"));
+        BulkRecipeDeleteRequest request = new BulkRecipeDeleteRequest();
+        request.setFilter(filter);
+
+        BulkRecipeDeleteResponse response = recipeService.deleteRecipes(request);
+
+        assertEquals(3, response.getDeleted());
+        assertEquals(List.of("Beef Tacos", "Chicken Curry", "Chicken Salad", "Mushroom Risotto", "Salmon with Asparagus",
+                        "Spaghetti Carbonara", "Tuna Sandwich"),
+                recipeRepository.findAll().stream().map(RecipeEntity::getName).sorted().toList());
+        assertEquals(21L, countIngredients());
+    }
+
+    @Test
+    void testDeleteRecipes_RejectsAmbiguousOrEmptyRequests() {
+        BulkRecipeDeleteRequest neither = new BulkRecipeDeleteRequest();
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.deleteRecipes(neither)).getHttpStatus());
+
+        BulkRecipeDeleteRequest both = new BulkRecipeDeleteRequest();
+        both.setIds(List.of(1L));
+        both.setFilter(new RecipeSearchRequest().isVegetarian(true));
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.deleteRecipes(both)).getHttpStatus());
+
+        BulkRecipeDeleteRequest emptyFilter = new BulkRecipeDeleteRequest();
+        emptyFilter.setFilter(new RecipeSearchRequest());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.deleteRecipes(emptyFilter)).getHttpStatus());
+
+        BulkRecipeDeleteRequest tokenlessInstruction = new BulkRecipeDeleteRequest();
+        tokenlessInstruction.setFilter(new RecipeSearchRequest().instruction("!!!"));
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.deleteRecipes(tokenlessInstruction)).getHttpStatus());
+        indexSynchronizer.clear();
+        try {
+            assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.deleteRecipes(tokenlessInstruction)).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+        assertEquals(10, recipeRepository.count());
+    }
+
+    @Test
+    void testGetFacets_CountsMatchingRecipes() {
+        RecipeSearchRequest filter = new RecipeSearchRequest();
+        filter.setExcludeIngredients(List.of("chicken"));
+
+        RecipeFacetsResponse facets = recipeService.getFacets(filter, 2);
+
+        assertEquals(8, facets.getTotalItems());
+        // the recipes of this test are still uncommitted
+        assertFalse(facets.getTotalItemsExact());
+        assertEquals(4, facets.getVegetarian());
+        assertEquals(4, facets.getNonVegetarian());
+        assertEquals(List.of(new ServingsFacet().servings(1).count(1L), new ServingsFacet().servings(2).count(2L),
+                        new ServingsFacet().servings(3).count(1L), new ServingsFacet().servings(4).count(3L),
+                        new ServingsFacet().servings(6).count(1L)),
+                facets.getServings());
+        assertEquals(List.of(new IngredientFacet().name("pasta").count(2L), new IngredientFacet().name("carrot").count(2L)),
+                facets.getIngredients());
+    }
+
+    @Test
+    void testGetFacets_RejectsRequestsTheIndexCannotAnswer() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                assertThrows(ApiException.class, () -> recipeService.getFacets(new RecipeSearchRequest(), 0)).getHttpStatus());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    assertThrows(ApiException.class, () -> recipeService.getFacets(new RecipeSearchRequest(), null)).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    private long countIngredients() {
+        return entityManager.createQuery("select count(i) from IngredientEntity i", Long.class).getSingleResult();
+    }
+
+    @Test
+    void testFindCookable_CoversRecipesUpToMissingIngredients() {
+        PantryRequest request = new PantryRequest()
+                .ingredients(new ArrayList<>(List.of(pantryItem("Pasta", null, null), pantryItem("eggs", null, null),
+                        pantryItem("cheese", 50, PantryItem.UnitEnum.GR), pantryItem("pesto", null, null), pantryItem("unobtainium", null, null))))
+                .maxMissing(1);
+
+        CookableRecipesResponse response = recipeService.findCookable(request);
+        assertEquals(2, response.getTotalItems());
+        assertEquals(List.of("Pesto Pasta", "Spaghetti Carbonara"), response.getData().stream().map(cookable -> cookable.getRecipe().getName()).toList());
+        assertEquals(List.of(List.of("pine nuts"), List.of("cheese")), response.getData().stream().map(CookableRecipe::getMissingIngredients).toList());
+
+        request.getIngredients().set(2, pantryItem("cheese", 100, PantryItem.UnitEnum.GR));
+        request.maxMissing(0);
+        response = recipeService.findCookable(request);
+        assertEquals(List.of("Spaghetti Carbonara"), response.getData().stream().map(cookable -> cookable.getRecipe().getName()).toList());
+        assertTrue(response.getData().getFirst().getMissingIngredients().isEmpty());
+
+        request.getIngredients().set(2, pantryItem("cheese", 100, PantryItem.UnitEnum.PCS));
+        assertTrue(recipeService.findCookable(request).getData().isEmpty());
+    }
+
+    @Test
+    void testFindCookable_RejectsInvalidPantries() {
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class,
+                () -> recipeService.findCookable(new PantryRequest().ingredients(List.of()))).getHttpStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class,
+                () -> recipeService.findCookable(new PantryRequest().ingredients(List.of(pantryItem("eggs", 6, null))))).getHttpStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class,
+                () -> recipeService.findCookable(new PantryRequest().ingredients(List.of(pantryItem("eggs", null, null))).maxMissing(6))).getHttpStatus());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, assertThrows(ApiException.class,
+                    () -> recipeService.findCookable(new PantryRequest().ingredients(List.of(pantryItem("eggs", null, null))))).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testGetSimilar_RanksRecipesByIngredientOverlap() {
+        createRecipe("Cheesy Egg Pasta", "Pasta with eggs and cheese.", false, 2, "Boil pasta and stir in eggs and cheese.", "cheese", "Pasta", "eggs");
+        Long carbonaraId = recipeRepository.findByName("Spaghetti Carbonara").orElseThrow().getId();
+
+        SimilarRecipesResponse response = recipeService.getSimilar(carbonaraId, 5);
+        assertEquals("Cheesy Egg Pasta", response.getData().getFirst().getRecipe().getName());
+        assertEquals(1.0, response.getData().getFirst().getSimilarity());
+        List<Double> similarities = response.getData().stream().map(SimilarRecipe::getSimilarity).toList();
+        assertEquals(similarities.stream().sorted(Comparator.reverseOrder()).toList(), similarities);
+        assertTrue(response.getData().stream().noneMatch(similar -> similar.getRecipe().getId().equals(carbonaraId)));
+    }
+
+    @Test
+    void testGetSimilar_RejectsUnknownRecipesAndLimits() {
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getSimilar(Long.MAX_VALUE, null));
+        Long carbonaraId = recipeRepository.findByName("Spaghetti Carbonara").orElseThrow().getId();
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.getSimilar(carbonaraId, 51)).getHttpStatus());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    assertThrows(ApiException.class, () -> recipeService.getSimilar(carbonaraId, null)).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    @Test
+    void testAutocomplete_RanksIngredientsByUseAheadOfRecipeNames() {
+        autocompleteIndex.refresh();
+
+        SuggestionsResponse response = recipeService.autocomplete(" P", null, 3);
+        // ingredient names are shown as first stored, compare them lower-cased
+        assertEquals(List.of("pasta", "parmesan", "pesto"), response.getData().stream().map(suggestion -> suggestion.getText().toLowerCase()).toList());
+        assertEquals(List.of(2, 1, 1), response.getData().stream().map(Suggestion::getWeight).toList());
+        assertTrue(response.getData().stream().allMatch(suggestion -> suggestion.getType() == Suggestion.TypeEnum.INGREDIENT));
+    }
+
+    @Test
+    void testAutocomplete_FiltersByType() {
+        autocompleteIndex.refresh();
+
+        assertEquals(List.of("Chicken Curry", "Chicken Salad"),
+                recipeService.autocomplete("chicken", "recipe", null).getData().stream().map(Suggestion::getText).toList());
+        List<Suggestion> ingredients = recipeService.autocomplete("chicken", "ingredient", null).getData();
+        assertEquals(1, ingredients.size());
+        assertEquals("chicken", ingredients.getFirst().getText().toLowerCase());
+        assertEquals(2, ingredients.getFirst().getWeight());
+    }
+
+    @Test
+    void testAutocomplete_FindsNewNamesAfterRefresh() {
+        autocompleteIndex.refresh();
+        createRecipe("Quiche Lorraine", "A French tart.", false, 6, "Bake the custard in a pastry shell.", "eggs", "quark");
+        assertTrue(recipeService.autocomplete("qu", null, null).getData().isEmpty());
+
+        autocompleteIndex.refresh();
+        assertEquals(List.of("quark", "quiche lorraine"),
+                recipeService.autocomplete("qu", null, null).getData().stream().map(suggestion -> suggestion.getText().toLowerCase()).toList());
+    }
+
+    @Test
+    void testAutocomplete_CompletesOnceIndexesAreReady() {
+        indexSynchronizer.clear();
+        try {
+            indexSynchronizer.load(recipeRepository.findAll());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+
+        assertEquals(List.of("Chicken Curry", "Chicken Salad"),
+                recipeService.autocomplete("chicken", "recipe", null).getData().stream().map(Suggestion::getText).toList());
+    }
+
+    @Test
+    void testAutocomplete_RefreshIsScheduled() {
+        assertTrue(scheduledTasks.getScheduledTasks().stream()
+                .map(task -> task.getTask().getRunnable().toString())
+                .anyMatch(runnable -> runnable.contains("AutocompleteIndex.refresh")));
+    }
+
+    @Test
+    void testAutocomplete_RejectsInvalidParameters() {
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.autocomplete(" ", null, null)).getHttpStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.autocomplete("p", "spice", null)).getHttpStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiException.class, () -> recipeService.autocomplete("p", null, 21)).getHttpStatus());
+
+        indexSynchronizer.clear();
+        try {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    assertThrows(ApiException.class, () -> recipeService.autocomplete("p", null, null)).getHttpStatus());
+        } finally {
+            indexSynchronizer.markReady();
+        }
+    }
+
+    private PantryItem pantryItem(String name, Integer quantity, PantryItem.UnitEnum unit) {
+        return new PantryItem().name(name).quantity(quantity).unit(unit);
+    }
+
     @Test
     void testRemoveRecipe_HappyPath() {
         RecipeEntity recipe = recipeRepository.findAll().getFirst();
@@ -0,0 +1,95 @@
+package com.recipe.manager.service.cache;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.recipe.manager.dto.Ingredient;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeListResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeJsonCacheTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private RecipeJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RecipeJsonCache(objectMapper, new SimpleMeterRegistry(), 1024 * 1024);
+    }
+
+    @Test
+    void cachedRecipesSerializeLikeTheDto() throws Exception {
+        Recipe carbonara = recipe(1L, "Spaghetti Carbonara", "pasta", "eggs");
+        Recipe tacos = recipe(2L, "Beef Tacos", "ground beef");
+        RecipeListResponse plain = new RecipeListResponse().data(List.of(carbonara, tacos));
+        RecipeListResponse cached = new RecipeListResponse().data(List.of(cache.put(carbonara), cache.put(tacos)));
+
+        // byte based generator (HTTP responses) and character based one
+        assertEquals(new String(objectMapper.writeValueAsBytes(plain)), new String(objectMapper.writeValueAsBytes(cached)));
+        assertEquals(objectMapper.writeValueAsString(plain), objectMapper.writeValueAsString(cached));
+    }
+
+    @Test
+    void rawJsonQuotesLikeASerializedString() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(recipe(1L, "Spaghetti Carbonara", "pasta"));
+        RawJson raw = new RawJson(json);
+        SerializedString expected = new SerializedString(new String(json, StandardCharsets.UTF_8));
+
+        assertArrayEquals(expected.asQuotedUTF8(), raw.asQuotedUTF8());
+        assertArrayEquals(expected.asQuotedChars(), raw.asQuotedChars());
+        assertArrayEquals(json, raw.asUnquotedUTF8());
+    }
+
+    @Test
+    void removeEvictsRecipe() {
+        cache.put(recipe(1L, "Spaghetti Carbonara", "pasta"));
+        cache.put(recipe(2L, "Beef Tacos", "ground beef"));
+
+        cache.remove(1L);
+
+        Map<Long, CachedRecipe> cached = cache.getAll(List.of(1L, 2L, 3L));
+        assertEquals(Set.of(2L), cached.keySet());
+        assertEquals("Beef Tacos", cached.get(2L).getName());
+    }
+
+    @Test
+    void clearEvictsEverything() {
+        cache.put(recipe(1L, "Spaghetti Carbonara", "pasta"));
+        cache.clear();
+        assertTrue(cache.getAll(List.of(1L)).isEmpty());
+    }
+
+    private Recipe recipe(Long id, String name, String... ingredientNames) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setName(name);
+        recipe.setDescription("Description of " + name);
+        recipe.setIsVegetarian(false);
+        recipe.setServings(2);
+        recipe.setInstructions("Cook the \"" + name + "\" for 20 minutes, then serve.");
+        recipe.setIngredients(Arrays.stream(ingredientNames)
+                .map(ingredientName -> new Ingredient().name(ingredientName).quantity(100).unit(Ingredient.UnitEnum.GR))
+                .toList());
+        recipe.setCreatedAt(OffsetDateTime.of(2024, 1, 16, 10, 30, 0, 0, ZoneOffset.UTC));
+        return recipe;
+    }
+}
@@ -0,0 +1,69 @@
+package com.recipe.manager.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BandBucketsTest {
+
+    private final BandBuckets buckets = new BandBuckets();
+
+    @Test
+    void add_collectsIdsPerKey() {
+        buckets.add(7L, 1L);
+        buckets.add(7L, 2L);
+        buckets.add(-7L, 3L);
+        assertEquals(List.of(2L, 1L), ids(7L));
+        assertEquals(List.of(3L), ids(-7L));
+        assertEquals(List.of(), ids(0L));
+    }
+
+    @Test
+    void remove_unlinksOnlyThatId() {
+        buckets.add(7L, 1L);
+        buckets.add(7L, 2L);
+        buckets.add(7L, 3L);
+        buckets.remove(7L, 2L);
+        buckets.remove(7L, 9L);
+        buckets.remove(8L, 1L);
+        assertEquals(List.of(3L, 1L), ids(7L));
+    }
+
+    @Test
+    void growsAndKeepsBucketsThroughRebuilds() {
+        for (long key = 0; key < 10_000; key++) {
+            buckets.add(key, key);
+            buckets.add(key, key + 1);
+        }
+        // empty buckets are dropped while growing, the removed entries are reused
+        for (long key = 0; key < 10_000; key += 2) {
+            buckets.remove(key, key);
+            buckets.remove(key, key + 1);
+        }
+        for (long key = 10_000; key < 20_000; key++) {
+            buckets.add(key, key);
+        }
+        assertEquals(List.of(), ids(0L));
+        assertEquals(List.of(2L, 1L), ids(1L));
+        assertEquals(List.of(10_000L, 9_999L), ids(9_999L));
+        assertEquals(List.of(19_999L), ids(19_999L));
+    }
+
+    @Test
+    void clear_dropsAllBuckets() {
+        buckets.add(7L, 1L);
+        buckets.clear();
+        assertEquals(List.of(), ids(7L));
+        buckets.add(7L, 2L);
+        assertEquals(List.of(2L), ids(7L));
+    }
+
+    private List<Long> ids(long key) {
+        List<Long> ids = new ArrayList<>();
+        buckets.forEach(key, ids::add);
+        return ids;
+    }
+}
@@ -0,0 +1,63 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InstructionIndexTest {
+
+    private InstructionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InstructionIndex();
+        index.add(recipe(1L, "Stir-fry vegetables in a wok."));
+        index.add(recipe(2L, "Bake salmon and asparagus in the oven."));
+        index.add(recipe(3L, "Roast vegetables in the OVEN, then serve."));
+    }
+
+    @Test
+    void search_singleKeyword() {
+        assertArrayEquals(new long[]{1L}, index.search("wok"));
+        assertArrayEquals(new long[]{2L, 3L}, index.search("oven"));
+    }
+
+    @Test
+    void search_allKeywordsMustMatch() {
+        assertArrayEquals(new long[]{3L}, index.search("Vegetables, oven"));
+        assertArrayEquals(new long[0], index.search("wok oven"));
+    }
+
+    @Test
+    void search_unknownKeyword() {
+        assertArrayEquals(new long[0], index.search("grill"));
+    }
+
+    @Test
+    void search_noTokens() {
+        assertNull(index.search(" ... "));
+    }
+
+    @Test
+    void remove_dropsRecipeFromPostings() {
+        index.remove(3L);
+        assertArrayEquals(new long[]{2L}, index.search("oven"));
+        assertArrayEquals(new long[]{1L}, index.search("vegetables"));
+    }
+
+    @Test
+    void add_outOfOrderIdsStaySorted() {
+        index.add(recipe(0L, "Preheat the oven."));
+        assertArrayEquals(new long[]{0L, 2L, 3L}, index.search("oven"));
+    }
+
+    private RecipeEntity recipe(Long id, String instructions) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setInstructions(instructions);
+        return recipe;
+    }
+}
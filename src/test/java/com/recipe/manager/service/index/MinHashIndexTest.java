@@ -0,0 +1,83 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MinHashIndexTest {
+
+    private MinHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MinHashIndex(16, 3);
+        index.add(recipe(1L, IntStream.rangeClosed(1, 10).toArray()));
+        index.add(recipe(2L, IntStream.rangeClosed(2, 11).toArray()));
+        index.add(recipe(3L, IntStream.rangeClosed(1, 10).toArray()));
+        index.add(recipe(4L, IntStream.rangeClosed(20, 25).toArray()));
+    }
+
+    @Test
+    void similar_mostSimilarFirst() {
+        assertEquals(List.of(new MinHashIndex.Match(3L, 1.0), new MinHashIndex.Match(2L, 9 / 11.0)), index.similar(1L, 10));
+    }
+
+    @Test
+    void similar_keepsOnlyLimitRecipes() {
+        assertEquals(List.of(new MinHashIndex.Match(3L, 1.0)), index.similar(1L, 1));
+    }
+
+    @Test
+    void similar_dissimilarRecipesAreNoCandidates() {
+        assertEquals(List.of(), index.similar(4L, 10));
+    }
+
+    @Test
+    void similar_unknownRecipe() {
+        assertNull(index.similar(99L, 10));
+    }
+
+    @Test
+    void remove_dropsRecipeFromBuckets() {
+        index.remove(3L);
+        assertNull(index.similar(3L, 10));
+        assertEquals(List.of(new MinHashIndex.Match(2L, 9 / 11.0)), index.similar(1L, 10));
+    }
+
+    @Test
+    void add_replacesIngredientsOfKnownRecipe() {
+        index.add(recipe(3L, IntStream.rangeClosed(20, 25).toArray()));
+        assertEquals(List.of(new MinHashIndex.Match(3L, 1.0)), index.similar(4L, 10));
+        assertEquals(List.of(new MinHashIndex.Match(2L, 9 / 11.0)), index.similar(1L, 10));
+    }
+
+    @Test
+    void jaccard_ofSortedSets() {
+        assertEquals(2 / 5.0, MinHashIndex.jaccard(new int[]{1, 2, 3}, new int[]{2, 3, 4, 5}));
+        assertEquals(0.0, MinHashIndex.jaccard(new int[]{1}, new int[]{2}));
+        assertEquals(0.0, MinHashIndex.jaccard(new int[0], new int[0]));
+    }
+
+    private static RecipeEntity recipe(Long id, int... ingredientIds) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setIngredients(new ArrayList<>(Arrays.stream(ingredientIds).mapToObj(ingredientId -> {
+            IngredientNameEntity name = new IngredientNameEntity();
+            name.setId(ingredientId);
+            IngredientEntity ingredient = new IngredientEntity();
+            ingredient.setIngredientName(name);
+            return ingredient;
+        }).toList()));
+        return recipe;
+    }
+}
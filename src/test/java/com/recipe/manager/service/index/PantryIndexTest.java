@@ -0,0 +1,112 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.data.UnitType;
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PantryIndexTest {
+
+    private static final int PASTA = 1;
+    private static final int EGGS = 2;
+    private static final int CHEESE = 3;
+    private static final int PESTO = 4;
+    private static final int SALT = 5;
+
+    private PantryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PantryIndex();
+        index.add(recipe(1L, need(PASTA, 200, UnitType.gr), need(EGGS, 3, UnitType.pcs), need(CHEESE, 50, UnitType.gr)));
+        index.add(recipe(2L, need(PASTA, 200, UnitType.gr), need(PESTO, 80, UnitType.gr)));
+        index.add(recipe(3L, need(EGGS, 2, UnitType.pcs), need(SALT, 5, UnitType.gr)));
+    }
+
+    @Test
+    void cookable_fullyCoveredRecipes() {
+        PantryIndex.Result result = index.cookable(List.of(supply(PASTA), supply(PESTO), supply(EGGS)), 0, 10);
+        assertEquals(List.of(new PantryIndex.Match(2L, List.of())), result.matches());
+        assertEquals(1, result.total());
+    }
+
+    @Test
+    void cookable_fewestMissingFirst() {
+        PantryIndex.Result result = index.cookable(List.of(supply(PASTA), supply(EGGS), supply(CHEESE)), 1, 10);
+        // equally many missing, newer first
+        assertEquals(List.of(new PantryIndex.Match(1L, List.of()), new PantryIndex.Match(3L, List.of(SALT)),
+                new PantryIndex.Match(2L, List.of(PESTO))), result.matches());
+    }
+
+    @Test
+    void cookable_limitKeepsBestAndCountsAll() {
+        PantryIndex.Result result = index.cookable(List.of(supply(PASTA), supply(EGGS), supply(CHEESE)), 1, 1);
+        assertEquals(List.of(new PantryIndex.Match(1L, List.of())), result.matches());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void cookable_quantitiesMustSufficeInTheSameUnit() {
+        List<PantryIndex.Supply> pantry = new ArrayList<>(List.of(supply(PASTA), supply(EGGS)));
+        pantry.add(new PantryIndex.Supply(CHEESE, 40, UnitType.gr));
+        assertEquals(List.of(), ids(index.cookable(pantry, 0, 10)));
+
+        pantry.set(2, new PantryIndex.Supply(CHEESE, 50, UnitType.pcs));
+        assertEquals(List.of(), ids(index.cookable(pantry, 0, 10)));
+
+        // amounts of the same ingredient add up
+        pantry.set(2, new PantryIndex.Supply(CHEESE, 30, UnitType.gr));
+        pantry.add(new PantryIndex.Supply(CHEESE, 20, UnitType.gr));
+        assertEquals(List.of(1L), ids(index.cookable(pantry, 0, 10)));
+    }
+
+    @Test
+    void cookable_sameIngredientInBothUnitsOnlyCoveredWithoutQuantity() {
+        index.add(recipe(4L, need(SALT, 5, UnitType.gr), need(SALT, 1, UnitType.pcs)));
+        assertEquals(List.of(4L), ids(index.cookable(List.of(supply(SALT)), 0, 10)));
+        assertEquals(List.of(), ids(index.cookable(List.of(new PantryIndex.Supply(SALT, 1000, UnitType.gr)), 0, 10)));
+    }
+
+    @Test
+    void cookable_needsOneSharedIngredient() {
+        assertEquals(List.of(), ids(index.cookable(List.of(supply(99)), 5, 10)));
+    }
+
+    @Test
+    void remove_dropsRecipe() {
+        index.remove(2L);
+        assertEquals(List.of(), ids(index.cookable(List.of(supply(PASTA), supply(PESTO)), 0, 10)));
+    }
+
+    private static List<Long> ids(PantryIndex.Result result) {
+        return result.matches().stream().map(PantryIndex.Match::recipeId).toList();
+    }
+
+    private static PantryIndex.Supply supply(int ingredientId) {
+        return new PantryIndex.Supply(ingredientId, null, null);
+    }
+
+    private static IngredientEntity need(int ingredientId, int quantity, UnitType unit) {
+        IngredientNameEntity name = new IngredientNameEntity();
+        name.setId(ingredientId);
+        IngredientEntity ingredient = new IngredientEntity();
+        ingredient.setIngredientName(name);
+        ingredient.setQuantity(quantity);
+        ingredient.setUnit(unit);
+        return ingredient;
+    }
+
+    private static RecipeEntity recipe(Long id, IngredientEntity... ingredients) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setIngredients(new ArrayList<>(List.of(ingredients)));
+        return recipe;
+    }
+}
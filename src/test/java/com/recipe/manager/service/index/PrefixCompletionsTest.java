@@ -0,0 +1,71 @@
+package com.recipe.manager.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrefixCompletionsTest {
+
+    private final PrefixCompletions completions = new PrefixCompletions(
+            new String[]{"apple", "apricot", "avocado", "banana", "basil"},
+            new String[]{"Apple", "Apricot", "Avocado", "Banana", "Basil"},
+            new int[]{3, 5, 5, 1, 7});
+
+    @Test
+    void top_ranksByWeightThenKey() {
+        assertEquals(List.of(completion("Apricot", 5), completion("Avocado", 5), completion("Apple", 3)), completions.top("a", 10));
+        assertEquals(List.of(completion("Basil", 7), completion("Banana", 1)), completions.top("ba", 10));
+    }
+
+    @Test
+    void top_keepsOnlyLimitNames() {
+        assertEquals(List.of(completion("Apricot", 5), completion("Avocado", 5)), completions.top("a", 2));
+        assertEquals(List.of(), completions.top("a", 0));
+    }
+
+    @Test
+    void top_emptyPrefixCompletesEverything() {
+        assertEquals(List.of("Basil", "Apricot", "Avocado", "Apple", "Banana"),
+                completions.top("", 10).stream().map(AutocompleteIndex.Completion::text).toList());
+    }
+
+    @Test
+    void top_unknownPrefixFindsNothing() {
+        assertEquals(List.of(), completions.top("c", 10));
+        assertEquals(List.of(), completions.top("zucchini", 10));
+        assertEquals(List.of(), completions.top("apples", 10));
+        assertEquals(List.of(), PrefixCompletions.EMPTY.top("a", 10));
+    }
+
+    @Test
+    void top_matchesFullScan() {
+        Random random = new Random(7);
+        String[] keys = IntStream.range(0, 1000)
+                .mapToObj(i -> Integer.toString(random.nextInt(100_000), 36))
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        int[] weights = IntStream.range(0, keys.length).map(i -> random.nextInt(20)).toArray();
+        PrefixCompletions large = new PrefixCompletions(keys, keys, weights);
+
+        for (String prefix : List.of("", "1", "a", "2b", "zz", "k1")) {
+            List<AutocompleteIndex.Completion> expected = IntStream.range(0, keys.length)
+                    .filter(i -> keys[i].startsWith(prefix))
+                    .mapToObj(i -> completion(keys[i], weights[i]))
+                    .sorted(Comparator.comparingInt(AutocompleteIndex.Completion::weight).reversed()
+                            .thenComparing(AutocompleteIndex.Completion::text))
+                    .limit(10)
+                    .toList();
+            assertEquals(expected, large.top(prefix, 10), prefix);
+        }
+    }
+
+    private AutocompleteIndex.Completion completion(String text, int weight) {
+        return new AutocompleteIndex.Completion(text, weight);
+    }
+}
@@ -0,0 +1,219 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.IngredientEntity;
+import com.recipe.manager.entity.IngredientNameEntity;
+import com.recipe.manager.entity.RecipeEntity;
+import com.recipe.manager.service.IngredientDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecipeBitmapIndexTest {
+
+    private RecipeBitmapIndex index;
+    // stands in for the ingredient dictionary
+    private final Map<String, IngredientNameEntity> dictionary = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeBitmapIndex();
+        index.add(recipe(1L, "Carbonara", false, 2, "Pasta", "Eggs"));
+        index.add(recipe(2L, "Stir-Fry", true, 4, "Broccoli", "Carrot"));
+        index.add(recipe(3L, "Lentil Soup", true, 6, "Lentils", "carrot"));
+        index.add(recipe(4L, "Pesto Pasta", true, 2, "pasta", "Pesto"));
+        index.add(recipe(5L, "Chicken Curry", false, 4, "Chicken", "Onion"));
+    }
+
+    @Test
+    void match_noFilters() {
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, match(null, null, null, null));
+    }
+
+    @Test
+    void match_vegetarianAndServings() {
+        assertArrayEquals(new long[]{2, 3, 4}, match(true, null, null, null));
+        assertArrayEquals(new long[]{1, 5}, match(false, null, null, null));
+        assertArrayEquals(new long[]{4}, match(true, 2, null, null));
+        assertArrayEquals(new long[0], match(null, 3, null, null));
+    }
+
+    @Test
+    void match_includeIsCaseInsensitiveUnion() {
+        assertArrayEquals(new long[]{2, 3}, match(null, null, List.of("CARROT"), null));
+        assertArrayEquals(new long[]{1, 4, 5}, match(null, null, List.of("pasta", "chicken"), null));
+    }
+
+    @Test
+    void match_excludeAndInclude() {
+        assertArrayEquals(new long[]{2, 3, 5}, match(null, null, null, List.of("pasta")));
+        assertArrayEquals(new long[]{1}, match(null, null, List.of("pasta"), List.of("pesto")));
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, match(null, null, null, List.of("unknown")));
+    }
+
+    @Test
+    void page_byCreatedAt() {
+        Roaring64Bitmap all = index.match(null, null, null, null);
+        assertEquals(List.of(5L, 4L), index.page(all, "createdAt", false, 0, 2));
+        assertEquals(List.of(3L, 2L), index.page(all, "createdAt", false, 2, 2));
+        assertEquals(List.of(5L), index.page(all, "createdAt", true, 4, 2));
+        assertEquals(List.of(), index.page(all, "createdAt", true, 5, 2));
+    }
+
+    @Test
+    void page_byCreatedAtUsesStoredTimestamps() {
+        // a pooled sequence can give a later id to a recipe created earlier
+        RecipeEntity early = recipe(6L, "Tomato Soup", true, 4, "Tomato");
+        early.setCreatedAt(Instant.EPOCH.plusSeconds(2));
+        index.add(early);
+        Roaring64Bitmap all = index.match(null, null, null, null);
+
+        assertEquals(List.of(1L, 2L, 6L, 3L), index.page(all, "createdAt", true, 0, 4));
+        assertEquals(List.of(5L, 4L, 3L, 6L), index.page(all, "createdAt", false, 0, 4));
+        assertEquals(List.of(6L, 3L, 4L), index.pageAfter(all, "createdAt", true, Instant.EPOCH.plusSeconds(2), 2L, 3));
+        assertEquals(List.of(2L, 1L), index.pageAfter(all, "createdAt", false, Instant.EPOCH.plusSeconds(2), 6L, 3));
+
+        index.remove(6L);
+        assertEquals(List.of(3L, 4L, 5L), index.page(index.match(null, null, null, null), "createdAt", true, 2, 3));
+    }
+
+    @Test
+    void page_byServingsSpansGroups() {
+        Roaring64Bitmap all = index.match(null, null, null, null);
+        assertEquals(List.of(1L, 4L, 2L), index.page(all, "servings", true, 0, 3));
+        assertEquals(List.of(5L, 3L), index.page(all, "servings", true, 3, 3));
+        assertEquals(List.of(3L, 5L, 2L), index.page(all, "servings", false, 0, 3));
+    }
+
+    @Test
+    void page_byName() {
+        Roaring64Bitmap vegetarian = index.match(true, null, null, null);
+        assertEquals(List.of(3L, 4L), index.page(vegetarian, "name", true, 0, 2));
+        assertEquals(List.of(2L, 4L, 3L), index.page(vegetarian, "name", false, 0, 5));
+    }
+
+    @Test
+    void remove_clearsAllBitmaps() {
+        index.remove(4L);
+        assertArrayEquals(new long[]{1}, match(null, null, List.of("pasta"), null));
+        assertArrayEquals(new long[]{2, 3}, match(true, null, null, null));
+        assertArrayEquals(new long[]{1}, match(null, 2, null, null));
+    }
+
+    @Test
+    void facets_unfiltered() {
+        RecipeFacets facets = index.facets(null, 3);
+
+        assertEquals(5, facets.total());
+        assertEquals(3, facets.vegetarian());
+        assertEquals(Map.of(2, 2L, 4, 2L, 6, 1L), facets.servings());
+        assertEquals(List.of(count("pasta", 2), count("carrot", 2), count("eggs", 1)), facets.ingredients());
+    }
+
+    @Test
+    void facets_filteredCountsMatchedRecipes() {
+        RecipeFacets facets = index.facets(index.match(true, null, null, null), 2);
+
+        assertEquals(3, facets.total());
+        assertEquals(3, facets.vegetarian());
+        assertEquals(Map.of(2, 1L, 4, 1L, 6, 1L), facets.servings());
+        assertEquals(List.of(count("carrot", 2), count("pasta", 1)), facets.ingredients());
+    }
+
+    @Test
+    void facets_filteredIntersectsBitmaps() {
+        // more matches than ingredients, so the counts come from intersecting the ingredient bitmaps
+        for (long id = 6; id <= 12; id++) {
+            index.add(recipe(id, "Carrot Salad " + id, true, 2, "Carrot", "Onion"));
+        }
+
+        RecipeFacets facets = index.facets(index.match(true, null, null, null), 2);
+
+        assertEquals(10, facets.total());
+        assertEquals(10, facets.vegetarian());
+        assertEquals(Map.of(2, 8L, 4, 1L, 6, 1L), facets.servings());
+        assertEquals(List.of(count("carrot", 9), count("onion", 7)), facets.ingredients());
+    }
+
+    @Test
+    void facets_followRemovals() {
+        index.remove(3L);
+
+        RecipeFacets facets = index.facets(null, 1);
+
+        assertEquals(4, facets.total());
+        assertEquals(2, facets.vegetarian());
+        assertEquals(Map.of(2, 2L, 4, 2L), facets.servings());
+        assertEquals(List.of(count("pasta", 2)), facets.ingredients());
+    }
+
+    @Test
+    void facets_skipRecipesRemovedAfterMatching() {
+        Roaring64Bitmap vegetarian = index.match(true, null, null, null);
+        index.remove(3L);
+
+        RecipeFacets facets = index.facets(vegetarian, 2);
+
+        assertEquals(2, facets.total());
+        assertEquals(Map.of(2, 1L, 4, 1L), facets.servings());
+        assertEquals(List.of(count("pasta", 1), count("broccoli", 1)), facets.ingredients());
+    }
+
+    @Test
+    void facets_filterMatchingEverythingIsStillFiltered() {
+        Roaring64Bitmap all = index.match(null, null, null, List.of("unknown"));
+        index.add(recipe(6L, "Tomato Soup", true, 4, "Tomato"));
+
+        assertEquals(5, index.facets(all, 3).total());
+        assertEquals(6, index.facets(null, 3).total());
+    }
+
+    private RecipeFacets.IngredientCount count(String ingredient, long count) {
+        return new RecipeFacets.IngredientCount(dictionary.get(IngredientDictionary.normalize(ingredient)).getId(), count);
+    }
+
+    private long[] match(Boolean isVegetarian, Integer servings, List<String> include, List<String> exclude) {
+        return index.match(isVegetarian, servings, ids(include), ids(exclude)).toArray();
+    }
+
+    private List<Integer> ids(List<String> names) {
+        if (names == null) {
+            return null;
+        }
+        return names.stream()
+                .map(name -> dictionary.get(IngredientDictionary.normalize(name)))
+                .filter(Objects::nonNull)
+                .map(IngredientNameEntity::getId)
+                .toList();
+    }
+
+    private RecipeEntity recipe(Long id, String name, boolean vegetarian, int servings, String... ingredientNames) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setName(name);
+        recipe.setVegeterian(vegetarian);
+        recipe.setServing(servings);
+        recipe.setCreatedAt(Instant.EPOCH.plusSeconds(id));
+        recipe.setIngredients(Arrays.stream(ingredientNames).map(ingredientName -> {
+            IngredientEntity ingredient = new IngredientEntity();
+            ingredient.setIngredientName(dictionary.computeIfAbsent(IngredientDictionary.normalize(ingredientName), key -> {
+                IngredientNameEntity entry = new IngredientNameEntity();
+                entry.setId(dictionary.size() + 1);
+                entry.setName(ingredientName);
+                entry.setNormalizedName(key);
+                return entry;
+            }));
+            return ingredient;
+        }).toList());
+        return recipe;
+    }
+}
@@ -0,0 +1,49 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeIndexSynchronizerTest {
+
+    private InstructionIndex index;
+    private RecipeIndexSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        index = new InstructionIndex();
+        synchronizer = new RecipeIndexSynchronizer(List.of(index));
+    }
+
+    @Test
+    void onPersisted_ignoredUntilTheLoadStarts() {
+        long version = synchronizer.version();
+        synchronizer.onPersisted(recipe(1L, "Stir-fry vegetables in a wok."));
+
+        assertArrayEquals(new long[0], index.search("wok"));
+        assertTrue(synchronizer.version() > version);
+    }
+
+    @Test
+    void onPersisted_appliedDuringAndAfterTheLoad() {
+        synchronizer.clear();
+        synchronizer.load(List.of(recipe(1L, "Stir-fry vegetables in a wok.")));
+        synchronizer.onPersisted(recipe(2L, "Toss the wok noodles."));
+        synchronizer.markReady();
+        synchronizer.onPersisted(recipe(3L, "Heat the wok."));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, index.search("wok"));
+    }
+
+    private static RecipeEntity recipe(Long id, String instructions) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setInstructions(instructions);
+        return recipe;
+    }
+}
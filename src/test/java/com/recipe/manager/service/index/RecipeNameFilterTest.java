@@ -0,0 +1,61 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeNameFilterTest {
+
+    private RecipeNameFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RecipeNameFilter();
+        filter.add(recipe(1L, "Spaghetti Carbonara"));
+        filter.add(recipe(2L, "Lentil Soup"));
+    }
+
+    @Test
+    void mightContain_knownNames() {
+        assertTrue(filter.mightContain("Spaghetti Carbonara"));
+        assertTrue(filter.mightContain("Lentil Soup"));
+    }
+
+    @Test
+    void mightContain_comparesExactly() {
+        assertFalse(filter.mightContain("spaghetti carbonara"));
+        assertFalse(filter.mightContain("Lentil Soup "));
+        assertFalse(filter.mightContain("Pesto Pasta"));
+    }
+
+    @Test
+    void remove_forgetsName() {
+        filter.remove(1L);
+        assertFalse(filter.mightContain("Spaghetti Carbonara"));
+        assertTrue(filter.mightContain("Lentil Soup"));
+    }
+
+    @Test
+    void add_renameReplacesOldName() {
+        filter.add(recipe(2L, "Red Lentil Soup"));
+        assertFalse(filter.mightContain("Lentil Soup"));
+        assertTrue(filter.mightContain("Red Lentil Soup"));
+    }
+
+    @Test
+    void clear_forgetsEverything() {
+        filter.clear();
+        assertFalse(filter.mightContain("Spaghetti Carbonara"));
+        assertFalse(filter.mightContain("Lentil Soup"));
+    }
+
+    private RecipeEntity recipe(Long id, String name) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setName(name);
+        return recipe;
+    }
+}
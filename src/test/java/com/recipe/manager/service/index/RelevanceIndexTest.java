@@ -0,0 +1,67 @@
+package com.recipe.manager.service.index;
+
+import com.recipe.manager.entity.RecipeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RelevanceIndexTest {
+
+    private RelevanceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelevanceIndex();
+        index.add(recipe(1L, "Tomato Soup", "A warming soup.", "Simmer tomatoes with a clove of garlic."));
+        index.add(recipe(2L, "Garlic Bread", "Crusty garlic bread.", "Rub garlic on toasted bread."));
+        index.add(recipe(3L, "Green Salad", "A light salad.", "Toss the leaves with dressing."));
+        index.add(recipe(4L, "Roast Chicken", "Sunday roast.", "Roast the chicken with garlic and lemon for an hour, "
+                + "then rest it. Carve the chicken and serve it with the roasting juices and vegetables."));
+    }
+
+    @Test
+    void top_ranksByTermFrequencyAcrossFields() {
+        assertEquals(List.of(2L, 1L, 4L, 3L), index.top(Roaring64Bitmap.bitmapOf(1L, 2L, 3L, 4L), "garlic", 10));
+    }
+
+    @Test
+    void top_rareTermsWeighMore() {
+        // "lemon" occurs in one recipe only, "garlic" in three
+        assertEquals(List.of(4L, 2L, 1L), index.top(Roaring64Bitmap.bitmapOf(1L, 2L, 4L), "garlic lemon", 10));
+    }
+
+    @Test
+    void top_keepsOnlyLimitMatches() {
+        assertEquals(List.of(2L), index.top(Roaring64Bitmap.bitmapOf(1L, 2L, 3L, 4L), "garlic", 1));
+        assertEquals(List.of(), index.top(Roaring64Bitmap.bitmapOf(1L, 2L, 3L, 4L), "garlic", 0));
+    }
+
+    @Test
+    void top_onlyScoresMatches() {
+        assertEquals(List.of(1L, 4L), index.top(Roaring64Bitmap.bitmapOf(1L, 4L, 5L), "garlic", 10));
+    }
+
+    @Test
+    void top_equalScoresRankNewerFirst() {
+        assertEquals(List.of(4L, 3L, 1L), index.top(Roaring64Bitmap.bitmapOf(1L, 3L, 4L), "pepper", 10));
+    }
+
+    @Test
+    void remove_dropsRecipe() {
+        index.remove(2L);
+        assertEquals(List.of(1L, 4L, 3L), index.top(Roaring64Bitmap.bitmapOf(1L, 2L, 3L, 4L), "garlic", 10));
+    }
+
+    private RecipeEntity recipe(Long id, String name, String description, String instructions) {
+        RecipeEntity recipe = new RecipeEntity();
+        recipe.setId(id);
+        recipe.setName(name);
+        recipe.setDescription(description);
+        recipe.setInstructions(instructions);
+        return recipe;
+    }
+}
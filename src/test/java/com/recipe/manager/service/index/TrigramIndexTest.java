@@ -0,0 +1,62 @@
+package com.recipe.manager.service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1, "tomato");
+        index.add(2, "tomatoes");
+        index.add(3, "tomato paste");
+        index.add(4, "potato");
+        index.add(5, "basil");
+    }
+
+    @Test
+    void search_ranksBySimilarity() {
+        List<TrigramIndex.Match> matches = index.search("tomatos", 0.5, 10);
+        assertEquals(List.of(1, 2), matches.stream().map(TrigramIndex.Match::id).toList());
+        assertEquals(6 / 9.0, matches.getFirst().similarity(), 1e-9);
+    }
+
+    @Test
+    void search_exactKeyComesFirst() {
+        List<TrigramIndex.Match> matches = index.search("tomato", 0.3, 10);
+        assertEquals(List.of(1, 2, 3), matches.stream().map(TrigramIndex.Match::id).toList());
+        assertEquals(1.0, matches.getFirst().similarity());
+    }
+
+    @Test
+    void search_limitsMatches() {
+        assertEquals(List.of(1), index.search("tomato", 0.3, 1).stream().map(TrigramIndex.Match::id).toList());
+    }
+
+    @Test
+    void search_nothingSimilar() {
+        assertTrue(index.search("chocolate", 0.5, 10).isEmpty());
+        assertTrue(index.search(" - ", 0.0, 10).isEmpty());
+    }
+
+    @Test
+    void add_indexesIdOnce() {
+        index.add(5, "tomato");
+        assertEquals(List.of(5), index.search("basil", 0.5, 10).stream().map(TrigramIndex.Match::id).toList());
+        assertEquals(List.of(1, 2), index.search("tomatos", 0.5, 10).stream().map(TrigramIndex.Match::id).toList());
+    }
+
+    @Test
+    void clear_dropsAllKeys() {
+        index.clear();
+        assertTrue(index.search("tomato", 0.0, 10).isEmpty());
+    }
+}
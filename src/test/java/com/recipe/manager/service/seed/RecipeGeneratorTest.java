@@ -0,0 +1,62 @@
+package com.recipe.manager.service.seed;
+
+import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientInput;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeGeneratorTest {
+
+    private static final int RECIPES = 2000;
+
+    private List<CreateRecipeRequest> generate(long seed) {
+        RecipeGenerator generator = new RecipeGenerator(seed);
+        return IntStream.range(0, RECIPES).mapToObj(generator::next).toList();
+    }
+
+    @Test
+    void sameSeedGivesSameCatalog() {
+        assertEquals(generate(1), generate(1));
+        assertNotEquals(generate(1), generate(2));
+    }
+
+    @Test
+    void recipesAreValidAndNamesUnique() {
+        Set<String> names = new HashSet<>();
+        int vegetarian = 0;
+        for (CreateRecipeRequest recipe : generate(42)) {
+            assertTrue(names.add(recipe.getName()));
+            assertTrue(recipe.getInstructions().length() <= RecipeGenerator.MAX_INSTRUCTIONS_LENGTH);
+            assertTrue(recipe.getServings() >= 1 && recipe.getServings() <= 100);
+            assertFalse(recipe.getIngredients().isEmpty());
+            if (recipe.getIsVegetarian()) {
+                vegetarian++;
+            }
+        }
+        assertTrue(vegetarian > RECIPES / 5 && vegetarian < RECIPES / 2);
+    }
+
+    @Test
+    void ingredientNamesAreSkewed() {
+        Map<String, Integer> frequency = new HashMap<>();
+        for (CreateRecipeRequest recipe : generate(42)) {
+            for (IngredientInput ingredient : recipe.getIngredients()) {
+                frequency.merge(ingredient.getName(), 1, Integer::sum);
+            }
+        }
+        // Zipf: the top name is far more common than a name from the tail
+        assertTrue(frequency.get("salt") > 10 * frequency.getOrDefault("pickled kale", 0));
+        assertTrue(frequency.size() > 200);
+    }
+}
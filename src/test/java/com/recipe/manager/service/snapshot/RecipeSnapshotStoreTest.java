@@ -0,0 +1,145 @@
+package com.recipe.manager.service.snapshot;
+
+import com.recipe.manager.boot.RecipeManagerLauncher;
+import com.recipe.manager.config.CacheConfiguration;
+import com.recipe.manager.dto.BulkRecipeImportRequest;
+import com.recipe.manager.dto.CreateRecipeRequest;
+import com.recipe.manager.dto.IngredientInput;
+import com.recipe.manager.dto.Recipe;
+import com.recipe.manager.dto.RecipeListResponse;
+import com.recipe.manager.dto.RecipeSearchRequest;
+import com.recipe.manager.repository.RecipeRepository;
+import com.recipe.manager.service.RecipeService;
+import com.recipe.manager.service.index.RecipeIndexSynchronizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not transactional: the snapshot is read and restored in transactions of its own
+@SpringBootTest(classes = RecipeManagerLauncher.class)
+@ActiveProfiles("test")
+class RecipeSnapshotStoreTest {
+
+    @Autowired
+    private RecipeSnapshotStore snapshotStore;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeIndexSynchronizer indexSynchronizer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository.deleteAll();
+        recipeService.importRecipes(new BulkRecipeImportRequest(List.of(
+                recipe("Spaghetti Carbonara", false, "pasta", "eggs", "cheese"),
+                recipe("Lentil Soup", true, "lentils", "carrot"),
+                recipe("Pesto Pasta", true, "pasta", "pesto"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+        indexSynchronizer.markReady();
+    }
+
+    @Test
+    void restore_bringsBackRecipesAndIndexes() throws IOException {
+        List<Recipe> before = search(new RecipeSearchRequest());
+        Path snapshot = directory.resolve("recipes.snapshot");
+        assertEquals(3, snapshotStore.write(snapshot));
+        assertFalse(Files.exists(directory.resolve("recipes.snapshot.tmp")));
+
+        // what a restart of the in-memory database leaves behind
+        jdbcTemplate.update("delete from ingredients");
+        jdbcTemplate.update("delete from recipes");
+        indexSynchronizer.clear();
+
+        assertEquals(3, snapshotStore.restore(snapshot));
+
+        assertTrue(indexSynchronizer.isReady());
+        assertEquals(before, search(new RecipeSearchRequest()));
+        assertEquals(List.of("Pesto Pasta", "Spaghetti Carbonara"),
+                search(new RecipeSearchRequest().includeIngredients(List.of("Pasta"))).stream().map(Recipe::getName).sorted().toList());
+        assertEquals(List.of("Spaghetti Carbonara"), search(new RecipeSearchRequest().instruction("cook")).stream().map(Recipe::getName).toList());
+
+        // restored ids do not collide with new ones
+        Recipe created = recipeService.addRecipe(recipe("Beef Tacos", false, "ground beef", "carrot"));
+        assertNotNull(created.getId());
+        assertEquals(4, recipeRepository.count());
+    }
+
+    @Test
+    void write_failingQueryLeavesNoTemporaryFile() {
+        Path snapshot = directory.resolve("recipes.snapshot");
+        jdbcTemplate.execute("alter table recipes rename to recipes_hidden");
+        try {
+            assertThrows(DataAccessException.class, () -> snapshotStore.write(snapshot));
+        } finally {
+            jdbcTemplate.execute("alter table recipes_hidden rename to recipes");
+        }
+        assertFalse(Files.exists(directory.resolve("recipes.snapshot.tmp")));
+        assertFalse(Files.exists(snapshot));
+    }
+
+    @Test
+    void restore_rejectsOtherFiles() throws IOException {
+        Path file = Files.writeString(directory.resolve("recipes.snapshot"), "not a snapshot");
+        assertThrows(IOException.class, () -> snapshotStore.restore(file));
+    }
+
+    private List<Recipe> search(RecipeSearchRequest filter) {
+        cacheManager.getCache(CacheConfiguration.RECIPE_SEARCH_CACHE).clear();
+        RecipeListResponse response = recipeService.getRecipes(filter);
+        return response.getData();
+    }
+
+    private CreateRecipeRequest recipe(String name, boolean vegetarian, String... ingredientNames) {
+        CreateRecipeRequest request = new CreateRecipeRequest();
+        request.setName(name);
+        request.setDescription("Description of " + name);
+        request.setServings(2);
+        request.setIsVegetarian(vegetarian);
+        request.setInstructions(vegetarian ? "Simmer gently for 20 minutes." : "Cook for 10 minutes.");
+        request.setIngredients(Arrays.stream(ingredientNames).map(ingredientName -> {
+            IngredientInput ingredient = new IngredientInput();
+            ingredient.setName(ingredientName);
+            ingredient.setQuantity(100);
+            ingredient.setUnit(IngredientInput.UnitEnum.GR);
+            return ingredient;
+        }).toList());
+        return request;
+    }
+}